@@ -18,9 +18,17 @@
 package name.dashkal.minecraft.miasma.api;
 
 import name.dashkal.minecraft.miasma.api.capability.MiasmaModifierUtils;
+import name.dashkal.minecraft.miasma.api.listener.MiasmaListener;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * Public API for the Miasma mod.
@@ -48,6 +56,40 @@ public abstract class MiasmaAPI {
      */
     public abstract Optional<IInfection> getInfection(LivingEntity entity);
 
+    /**
+     * Calls the given consumer with a snapshot of every infection in the given world.
+     * <p>
+     *     Infections are only tracked on the server.  Client worlds have none.
+     * </p>
+     *
+     * @param world the world to search
+     * @param consumer called with each infected entity and its infection state
+     */
+    public abstract void forEachInfected(World world, BiConsumer<LivingEntity, IInfection> consumer);
+
+    /**
+     * Counts the infected entities in the given world by infection stage.
+     * <p>
+     *     Infections are only tracked on the server.  Client worlds have none.
+     * </p>
+     *
+     * @param world the world to search
+     * @return the number of infected entities at each stage, including stages with none
+     */
+    public abstract Map<InfectionStage, Integer> countByStage(World world);
+
+    /**
+     * Returns every infected entity in the given world whose bounding box intersects the given area.
+     * <p>
+     *     Infections are only tracked on the server.  Client worlds have none.
+     * </p>
+     *
+     * @param world the world to search
+     * @param area the area to search within
+     * @return a new list of the infected entities found
+     */
+    public abstract List<LivingEntity> getInfectedIn(World world, AxisAlignedBB area);
+
     /**
      * Attempts to infect an entity with the miasma infection, starting at the specified infection stage.
      *
@@ -57,6 +99,22 @@ public abstract class MiasmaAPI {
      */
     public abstract boolean tryApplyInfection(LivingEntity entity, InfectionStage stage);
 
+    /**
+     * Attempts to infect many entities with the miasma infection at once, starting at the specified infection stage.
+     * <p>
+     *     Each entity is checked as by {@link #tryApplyInfection(LivingEntity, InfectionStage)}, but instead of the
+     *     per-entity pre and post application events, a single
+     *     {@link name.dashkal.minecraft.miasma.api.events.MiasmaBatchEvent.InfectionBatchPreApplyEvent} and
+     *     {@link name.dashkal.minecraft.miasma.api.events.MiasmaBatchEvent.InfectionBatchPostApplyEvent} are fired for
+     *     the whole batch.  Prefer this over repeated single applications for area effects.
+     * </p>
+     *
+     * @param entities the entities to apply the infection to.  Each entity should appear only once.
+     * @param stage the stage to start the miasma infection at
+     * @return a bit set in which the index of every entity that was infected, in iteration order, is set.
+     */
+    public abstract BitSet tryApplyInfection(Collection<? extends LivingEntity> entities, InfectionStage stage);
+
     /**
      * Causes an active miasma infection to pulse, without affecting the timer.
      * <p>
@@ -71,6 +129,51 @@ public abstract class MiasmaAPI {
      */
     public abstract void removeInfection(LivingEntity entity);
 
+    /**
+     * Signals that the {@link name.dashkal.minecraft.miasma.api.capability.IMiasmaModifier}s applicable to the given
+     * entity may have changed.
+     * <p>
+     *     Miasma caches the modifiers found for each entity and refreshes them when the entity's equipment changes.
+     *     Modifier locators that find modifiers anywhere else must call this whenever those modifiers change.
+     * </p>
+     */
+    public abstract void invalidateModifiers(LivingEntity entity);
+
+    /**
+     * Registers a listener to be called whenever an infection is applied.
+     *
+     * @see MiasmaListener
+     */
+    public abstract void onApply(MiasmaListener.Apply listener);
+
+    /**
+     * Registers a listener to be called whenever an infection pulses.
+     *
+     * @see MiasmaListener
+     */
+    public abstract void onPulse(MiasmaListener.Pulse listener);
+
+    /**
+     * Registers a listener to be called whenever an infection changes stage.
+     *
+     * @see MiasmaListener
+     */
+    public abstract void onStageChange(MiasmaListener.StageChange listener);
+
+    /**
+     * Registers a listener to be consulted whenever an infection is about to kill an entity.
+     *
+     * @see MiasmaListener
+     */
+    public abstract void onKillCheck(MiasmaListener.KillCheck listener);
+
+    /**
+     * Registers a listener to be called whenever an infection is removed.
+     *
+     * @see MiasmaListener
+     */
+    public abstract void onRemove(MiasmaListener.Remove listener);
+
     /**
      * Returns a handle to the {@link MiasmaModifierUtils} api class.
      */
@@ -0,0 +1,251 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.api.events;
+
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifierType;
+import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifiers;
+import net.minecraft.entity.LivingEntity;
+import net.minecraftforge.eventbus.api.Cancelable;
+import net.minecraftforge.eventbus.api.Event;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Superclass for events relating to the Miasma infection of many entities at once.
+ * <p>
+ *     These are fired by {@link name.dashkal.minecraft.miasma.api.MiasmaAPI#tryApplyInfection(java.util.Collection, InfectionStage)}
+ *     once per batch, in place of the per-entity {@link MiasmaEvent.InfectionPreApplyEvent} and
+ *     {@link MiasmaEvent.InfectionPostApplyEvent}.  Handlers written for a single entity can be adapted to a batch
+ *     through {@link InfectionBatchPreApplyEvent#getCandidates()}.
+ * </p>
+ * <p>
+ *     All of these events are dispatched on the {@link net.minecraftforge.common.MinecraftForge#EVENT_BUS} bus, on the
+ *     server only.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public abstract class MiasmaBatchEvent extends Event {
+    private final List<LivingEntity> entities;
+    private final InfectionStage stage;
+
+    MiasmaBatchEvent(List<LivingEntity> entities, InfectionStage stage) {
+        this.entities = Collections.unmodifiableList(entities);
+        this.stage = stage;
+    }
+
+    /** Returns the entities this event applies to. */
+    public List<LivingEntity> getEntities() {
+        return entities;
+    }
+
+    /** Returns the stage the infection is being applied at. */
+    public InfectionStage getStage() {
+        return stage;
+    }
+
+    /**
+     * Event dispatched when a batch of entities is to be infected by the miasma.
+     * <p>
+     *     Only entities that passed their own checks, including their gear, are included.  No
+     *     {@link MiasmaEvent.InfectionPreApplyEvent} is fired for them.
+     * </p>
+     * <p>
+     *     Handlers may apply infection modifiers to the whole batch through use of
+     *     {@link #addModifier(MiasmaPropertyModifierType, Object)}.  Each entity can be blocked, or given modifiers
+     *     of its own, through {@link #getCandidates()}:
+     * </p>
+     * <pre>{@code
+     *     event.getCandidates().forEach(candidate -> {
+     *         if (isProtected(candidate.getEntity())) {
+     *             candidate.block();
+     *         }
+     *     });
+     * }</pre>
+     * <p>
+     *     This event is {@link Cancelable}.<br/>
+     *     If this event is canceled, none of the entities will be infected.
+     * </p>
+     */
+    @Cancelable
+    public static class InfectionBatchPreApplyEvent extends MiasmaBatchEvent {
+        private final MiasmaPropertyModifiers.Builder modifiersBuilder;
+        private final MiasmaPropertyModifiers.Builder[] entityModifiersBuilders;
+        private final BitSet blocked;
+        private List<Candidate> candidates;
+
+        /**
+         * Creates a new miasma batch pre-application event.
+         *
+         * @param entities the entities to be infected
+         * @param stage the stage the infection is being applied at
+         * @param modifiersBuilder a modifiers builder to use to collect modifiers for the whole batch
+         * @param entityModifiersBuilders an array, as long as {@code entities}, in which builders collecting modifiers
+         *                                for single entities are created as needed
+         * @param blocked a bit set to mark blocked entities in, by their index in {@code entities}
+         */
+        public InfectionBatchPreApplyEvent(List<LivingEntity> entities, InfectionStage stage, MiasmaPropertyModifiers.Builder modifiersBuilder,
+                                           MiasmaPropertyModifiers.Builder[] entityModifiersBuilders, BitSet blocked) {
+            super(entities, stage);
+            if (entityModifiersBuilders.length != entities.size()) {
+                throw new IllegalArgumentException("Expected " + entities.size() + " entity modifier builders, got " + entityModifiersBuilders.length);
+            }
+            this.modifiersBuilder = modifiersBuilder;
+            this.entityModifiersBuilders = entityModifiersBuilders;
+            this.blocked = blocked;
+        }
+
+        /** Returns a per-entity view of this event, in the same order as {@link #getEntities()}. */
+        public List<Candidate> getCandidates() {
+            if (candidates == null) {
+                candidates = new AbstractList<Candidate>() {
+                    @Override
+                    public Candidate get(int index) {
+                        checkIndex(index);
+                        return new Candidate(index);
+                    }
+
+                    @Override
+                    public int size() {
+                        return getEntities().size();
+                    }
+                };
+            }
+            return candidates;
+        }
+
+        /**
+         * Adds a modifier to apply to the infection of every entity in the batch.
+         * @param type the type of modifier to apply
+         * @param value the modifier value to apply
+         * @param <T> the type of the modifier value
+         */
+        public <T> void addModifier(MiasmaPropertyModifierType<T> type, T value) {
+            modifiersBuilder.addModifier(type, value);
+        }
+
+        /**
+         * Adds a modifier to apply to the infection of the entity at the given index of {@link #getEntities()} only.
+         * @param index the index of the entity to modify the infection of
+         * @param type the type of modifier to apply
+         * @param value the modifier value to apply
+         * @param <T> the type of the modifier value
+         */
+        public <T> void addModifier(int index, MiasmaPropertyModifierType<T> type, T value) {
+            checkIndex(index);
+            if (entityModifiersBuilders[index] == null) {
+                entityModifiersBuilders[index] = new MiasmaPropertyModifiers.Builder();
+            }
+            entityModifiersBuilders[index].addModifier(type, value);
+        }
+
+        /**
+         * Prevents the entity at the given index of {@link #getEntities()} from being infected.
+         * @param index the index of the entity to block
+         */
+        public void block(int index) {
+            checkIndex(index);
+            blocked.set(index);
+        }
+
+        /** Returns {@code true} if the entity at the given index of {@link #getEntities()} has been blocked. */
+        public boolean isBlocked(int index) {
+            return blocked.get(index);
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= getEntities().size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + getEntities().size());
+            }
+        }
+
+        /**
+         * A single entity of an {@link InfectionBatchPreApplyEvent}.
+         * <p>
+         *     Offers the same controls as a {@link MiasmaEvent.InfectionPreApplyEvent}, acting on just this entity.
+         * </p>
+         */
+        public class Candidate {
+            private final int index;
+
+            private Candidate(int index) {
+                this.index = index;
+            }
+
+            /** Returns the index of this entity in {@link #getEntities()}. */
+            public int getIndex() {
+                return index;
+            }
+
+            /** Returns the entity to be infected. */
+            public LivingEntity getEntity() {
+                return getEntities().get(index);
+            }
+
+            /** Returns the stage the infection is being applied at. */
+            public InfectionStage getStage() {
+                return InfectionBatchPreApplyEvent.this.getStage();
+            }
+
+            /**
+             * Adds a modifier to apply to the infection of this entity only.
+             * @param type the type of modifier to apply
+             * @param value the modifier value to apply
+             * @param <T> the type of the modifier value
+             */
+            public <T> void addModifier(MiasmaPropertyModifierType<T> type, T value) {
+                InfectionBatchPreApplyEvent.this.addModifier(index, type, value);
+            }
+
+            /** Prevents this entity from being infected. */
+            public void block() {
+                InfectionBatchPreApplyEvent.this.block(index);
+            }
+
+            /** Returns {@code true} if this entity has been blocked. */
+            public boolean isBlocked() {
+                return InfectionBatchPreApplyEvent.this.isBlocked(index);
+            }
+        }
+    }
+
+    /**
+     * Event dispatched when a batch of entities has been infected by the miasma.
+     * <p>
+     *     Only the entities that were actually infected are included.  No {@link MiasmaEvent.InfectionPostApplyEvent}
+     *     is fired for them.
+     * </p>
+     * <p>
+     *     This event is not {@link Cancelable}.
+     * </p>
+     */
+    public static class InfectionBatchPostApplyEvent extends MiasmaBatchEvent {
+        /**
+         * Creates a new miasma batch post application event.
+         *
+         * @param entities the entities the miasma was applied to
+         * @param stage the stage the infection was applied at
+         */
+        public InfectionBatchPostApplyEvent(List<LivingEntity> entities, InfectionStage stage) {
+            super(entities, stage);
+        }
+    }
+}
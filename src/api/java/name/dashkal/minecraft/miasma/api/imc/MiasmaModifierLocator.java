@@ -21,6 +21,7 @@ import name.dashkal.minecraft.miasma.api.capability.IMiasmaModifier;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.util.ResourceLocation;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -49,11 +50,16 @@ import java.util.function.Supplier;
  *         );
  *     }</pre>
  * </p>
+ * <p>
+ *     Locators may instead be given a {@link VisitorFunction}, which passes each modifier found to a {@link Visitor}
+ *     rather than building a list.  This form avoids allocating on every lookup and lets the search stop early.
+ * </p>
  */
 public final class MiasmaModifierLocator {
     private final ResourceLocation resourceLocation;
     private final int priority;
     private final Function<LivingEntity, List<IMiasmaModifier>> locatorFunction;
+    private final VisitorFunction visitorFunction;
 
     /** Method to pass to {@link net.minecraftforge.fml.InterModComms#sendTo(String, String, Supplier)} as the method argument. */
     public static final String IMC_METHOD_ADD_MODIFIER = "addModifierLocator";
@@ -73,6 +79,36 @@ public final class MiasmaModifierLocator {
         this.resourceLocation = resourceLocation;
         this.priority = priority;
         this.locatorFunction = locatorFunction;
+        this.visitorFunction = (entity, visitor) -> {
+            for (IMiasmaModifier miasmaModifier : locatorFunction.apply(entity)) {
+                if (!visitor.visit(miasmaModifier)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Creates a new Modifier Locator that visits the modifiers it finds.
+     * <p>
+     *     Held items are checked at priority 0.<br/>
+     *     Armor pieces are checked at priority 100.<br/>
+     *     If both Miasma Integrations and Curios are installed, curios are checked at priority 200.
+     * </p>
+     * @param resourceLocation the unique identifier of this locator
+     * @param priority the priority of this locator. Lower priority values get used before higher ones.
+     * @param visitorFunction a function invoked to visit {@link IMiasmaModifier}s applicable to the given entity.
+     */
+    public MiasmaModifierLocator(ResourceLocation resourceLocation, int priority, VisitorFunction visitorFunction) {
+        this.resourceLocation = resourceLocation;
+        this.priority = priority;
+        this.visitorFunction = visitorFunction;
+        this.locatorFunction = entity -> {
+            List<IMiasmaModifier> modifiers = new ArrayList<>();
+            visitorFunction.visitModifiers(entity, modifiers::add);
+            return modifiers;
+        };
     }
 
     /**
@@ -95,4 +131,37 @@ public final class MiasmaModifierLocator {
     public Function<LivingEntity, List<IMiasmaModifier>> getLocatorFunction() {
         return locatorFunction;
     }
+
+    /**
+     * Returns the visitor function of this locator.
+     */
+    public VisitorFunction getVisitorFunction() {
+        return visitorFunction;
+    }
+
+    /**
+     * Receives each {@link IMiasmaModifier} found by a locator.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a single modifier.
+         *
+         * @return {@code true} to continue visiting or {@code false} to stop
+         */
+        boolean visit(IMiasmaModifier miasmaModifier);
+    }
+
+    /**
+     * Finds {@link IMiasmaModifier}s applicable to an entity and passes each one to a {@link Visitor}.
+     */
+    @FunctionalInterface
+    public interface VisitorFunction {
+        /**
+         * Visits the modifiers applicable to the given entity, stopping as soon as the visitor returns {@code false}.
+         *
+         * @return {@code false} if the visitor stopped the search, otherwise {@code true}
+         */
+        boolean visitModifiers(LivingEntity entity, Visitor visitor);
+    }
 }
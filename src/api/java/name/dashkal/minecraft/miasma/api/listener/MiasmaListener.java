@@ -0,0 +1,102 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.api.listener;
+
+import name.dashkal.minecraft.miasma.api.InfectionMode;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import net.minecraft.entity.LivingEntity;
+
+/**
+ * Functional listeners for miasma infection activity, registered through
+ * {@link name.dashkal.minecraft.miasma.api.MiasmaAPI}.
+ * <p>
+ *     These are called directly by the miasma logic, without constructing an event or an infection snapshot, and are
+ *     a lighter alternative to the {@link name.dashkal.minecraft.miasma.api.events.MiasmaEvent}s for integrations
+ *     that only need to observe the infection.  The events are still fired alongside these listeners.
+ * </p>
+ * <p>
+ *     Listeners are called on the logical server only, with server side entities, in the order they were registered.
+ *     The client's own prediction of its player's infection does not call them.
+ * </p>
+ */
+public final class MiasmaListener {
+    private MiasmaListener() { }
+
+    /** Listener called after an infection has been applied to an entity. */
+    @FunctionalInterface
+    public interface Apply {
+        /**
+         * @param entity the newly infected entity
+         * @param stage the stage the infection was applied at
+         */
+        void onApply(LivingEntity entity, InfectionStage stage);
+    }
+
+    /** Listener called after an infection has pulsed, unless the pulse was paused. */
+    @FunctionalInterface
+    public interface Pulse {
+        /**
+         * @param entity the infected entity
+         * @param stage the stage of the infection after the pulse
+         * @param mode the mode the infection pulsed in
+         * @param stageProgress the progress through the stage, as per
+         *                      {@link name.dashkal.minecraft.miasma.api.IInfection#getStageProgress()}
+         */
+        void onPulse(LivingEntity entity, InfectionStage stage, InfectionMode mode, float stageProgress);
+    }
+
+    /** Listener called after an infection has intensified or cleansed to a new stage. */
+    @FunctionalInterface
+    public interface StageChange {
+        /**
+         * @param entity the infected entity
+         * @param oldStage the stage before the change
+         * @param newStage the stage after the change
+         */
+        void onStageChange(LivingEntity entity, InfectionStage oldStage, InfectionStage newStage);
+    }
+
+    /**
+     * Listener called when an infection is about to kill an entity.
+     * <p>
+     *     Returning {@code false} prevents the kill and restarts the {@link InfectionStage#KILLING} stage, as does
+     *     cancelling the {@link name.dashkal.minecraft.miasma.api.events.MiasmaEvent.InfectionKillEvent}.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface KillCheck {
+        /**
+         * @param entity the entity about to be killed
+         * @return {@code true} to allow the kill, {@code false} to prevent it
+         */
+        boolean checkKill(LivingEntity entity);
+    }
+
+    /**
+     * Listener called after an infection has been removed from an entity, whether cleansed, cured, cleared along with
+     * the miasma effect, or ended by the entity's death.
+     */
+    @FunctionalInterface
+    public interface Remove {
+        /**
+         * @param entity the entity the infection was removed from
+         * @param stage the stage of the infection when it was removed
+         */
+        void onRemove(LivingEntity entity, InfectionStage stage);
+    }
+}
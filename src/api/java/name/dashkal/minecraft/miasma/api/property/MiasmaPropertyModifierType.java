@@ -34,25 +34,35 @@ public final class MiasmaPropertyModifierType<T> {
     private static final BinaryOperator<Fraction> fractionMultiplier = Fraction::multiplyBy;
 
     /** Modifier for the amount of time it takes to cleanse an infection by one stage. */
-    public static MiasmaPropertyModifierType<Fraction> CLEANSE_STAGE_TIME = new MiasmaPropertyModifierType<>("miasma.modifier.cleanse_stage_time", Fraction.class, fractionMultiplier, Fraction.ONE);
+    public static MiasmaPropertyModifierType<Fraction> CLEANSE_STAGE_TIME = new MiasmaPropertyModifierType<>(0, "miasma.modifier.cleanse_stage_time", Fraction.class, fractionMultiplier, Fraction.ONE);
     /** Modifier for the amount of time it takes to intensify an infection by one stage. */
-    public static MiasmaPropertyModifierType<Fraction> INTENSIFY_STAGE_TIME = new MiasmaPropertyModifierType<>("miasma.modifier.intensify_stage_time", Fraction.class, fractionMultiplier, Fraction.ONE);
+    public static MiasmaPropertyModifierType<Fraction> INTENSIFY_STAGE_TIME = new MiasmaPropertyModifierType<>(1, "miasma.modifier.intensify_stage_time", Fraction.class, fractionMultiplier, Fraction.ONE);
     /** Modifier for the amount of damage an entity takes when a miasma infection pulses. */
-    public static MiasmaPropertyModifierType<Fraction> DAMAGE = new MiasmaPropertyModifierType<>("miasma.modifier.damage", Fraction.class, fractionMultiplier, Fraction.ONE);
+    public static MiasmaPropertyModifierType<Fraction> DAMAGE = new MiasmaPropertyModifierType<>(2, "miasma.modifier.damage", Fraction.class, fractionMultiplier, Fraction.ONE);
 
+    // Number of modifier types.  Ordinals are dense, starting at 0.
+    static final int COUNT = 3;
+
+    private final int ordinal;
     private final String unlocalizedName;
     private final Class<T> valueClass;
     private final BinaryOperator<T> combiner;
     private final T zero;
 
     // Private to ensure that we have a closed set.
-    private MiasmaPropertyModifierType(String unlocalizedName, Class<T> valueClass, BinaryOperator<T> combiner, T zero) {
+    private MiasmaPropertyModifierType(int ordinal, String unlocalizedName, Class<T> valueClass, BinaryOperator<T> combiner, T zero) {
+        this.ordinal = ordinal;
         this.unlocalizedName = unlocalizedName;
         this.valueClass = valueClass;
         this.combiner = combiner;
         this.zero = zero;
     }
 
+    /** Returns the index of this modifier type within the closed set of types. */
+    int getOrdinal() {
+        return ordinal;
+    }
+
     /** Returns the unlocalized name of this modifier */
     public String getUnlocalizedName() {
         return unlocalizedName;
@@ -17,21 +17,32 @@
  */
 package name.dashkal.minecraft.miasma.api.property;
 
-import java.util.*;
+import org.apache.commons.lang3.math.Fraction;
+
+import java.util.Arrays;
 
 /**
  * An immutable collection of modifications to properties of a Miasma infection.
  * <p>
  *     New instances can be created by use of {@link MiasmaPropertyModifiers.Builder}.
  * </p>
+ * <p>
+ *     As {@link MiasmaPropertyModifierType} is a closed set of {@link Fraction} valued types, modifiers are stored
+ *     densely by type, each as a packed numerator and denominator.  Merging gives exactly the same results as
+ *     {@link Fraction#multiplyBy(Fraction)}.
+ * </p>
  */
 public class MiasmaPropertyModifiers {
-    private static final MiasmaPropertyModifiers EMPTY = new MiasmaPropertyModifiers(new HashMap<>());
+    private static final MiasmaPropertyModifiers EMPTY = new MiasmaPropertyModifiers(0, newValues());
 
-    private final Map<MiasmaPropertyModifierType<?>, Modifier<?>> modifiers;
+    // Bit set, by type ordinal, of the modifiers that have been added
+    private final int present;
+    // Packed fractions, by type ordinal
+    private final long[] values;
 
-    private MiasmaPropertyModifiers(Map<MiasmaPropertyModifierType<?>, Modifier<?>> modifiers) {
-        this.modifiers = Collections.unmodifiableMap(modifiers);
+    private MiasmaPropertyModifiers(int present, long[] values) {
+        this.present = present;
+        this.values = values;
     }
 
     /** Returns a handle to the singleton empty {@link MiasmaPropertyModifiers} instance. */
@@ -43,63 +54,84 @@ public class MiasmaPropertyModifiers {
      * Returns the value for the modifier of the given type.  If no such modifier has been added, this returns the
      * zero value for that type.
      */
+    @SuppressWarnings("unchecked") // Every modifier type is Fraction valued
     public <T> T getModifier(MiasmaPropertyModifierType<T> type) {
-        if (modifiers.containsKey(type)) {
-            return modifiers.get(type).castOrZero(type).value;
+        if ((present & (1 << type.getOrdinal())) != 0) {
+            return (T) PackedFraction.toFraction(values[type.getOrdinal()]);
         } else {
             return type.getZero();
         }
     }
 
+    /**
+     * Applies the modifier of the given type to an integer value, truncating the result.
+     * <p>
+     *     Equivalent to {@code Fraction.getFraction(value, 1).multiplyBy(getModifier(type)).intValue()}, without
+     *     allocating.
+     * </p>
+     */
+    public int applyTo(MiasmaPropertyModifierType<Fraction> type, int value) {
+        long result = PackedFraction.multiply(PackedFraction.pack(value, 1), values[type.getOrdinal()]);
+        return PackedFraction.numerator(result) / PackedFraction.denominator(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MiasmaPropertyModifiers)) return false;
+        MiasmaPropertyModifiers that = (MiasmaPropertyModifiers) o;
+        return present == that.present && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * present + Arrays.hashCode(values);
+    }
+
+    private static long[] newValues() {
+        long[] values = new long[MiasmaPropertyModifierType.COUNT];
+        Arrays.fill(values, PackedFraction.ONE);
+        return values;
+    }
+
     /**
      * A mutable builder used to construct  an {@link MiasmaPropertyModifiers} instance.
+     * <p>
+     *     Adding modifiers to a builder does not allocate.
+     * </p>
      */
     @SuppressWarnings({"UnusedReturnValue", "unused"})
     public static class Builder {
-        private final Map<MiasmaPropertyModifierType<?>, Modifier<?>> modifiers;
+        private int present;
+        private final long[] values;
 
         /** Constructs a new empty {@link MiasmaPropertyModifiers.Builder} */
         public Builder() {
-            modifiers = new HashMap<>();
+            present = 0;
+            values = newValues();
         }
 
         /** Constructs a {@link MiasmaPropertyModifiers.Builder} that starts with the provided modifiers. */
         public Builder(MiasmaPropertyModifiers modifiers) {
-            this.modifiers = new HashMap<>(modifiers.modifiers);
+            present = modifiers.present;
+            values = modifiers.values.clone();
         }
 
         /** Adds a modifier to this builder. */
         public <T> Builder addModifier(MiasmaPropertyModifierType<T> type, T value) {
-            Modifier<T> newMod = new Modifier<>(type, value);
-            if (modifiers.containsKey(type)) {
-                modifiers.put(type, modifiers.get(type).tryMerge(newMod));
-            } else {
-                modifiers.put(type, newMod);
-            }
+            merge(type.getOrdinal(), PackedFraction.pack((Fraction) value));
             return this;
         }
 
         /** Adds all modifiers from another builder into this one. */
         public Builder addAll(Builder other) {
-            for (Modifier<?> newMod : other.modifiers.values()) {
-                if (modifiers.containsKey(newMod.type)) {
-                    modifiers.put(newMod.type, modifiers.get(newMod.type).tryMerge(newMod));
-                } else {
-                    modifiers.put(newMod.type, newMod);
-                }
-            }
+            mergeAll(other.present, other.values);
             return this;
         }
 
         /** Adds all modifiers from the provided {@link MiasmaPropertyModifiers} to this builder. */
         public Builder addAll(MiasmaPropertyModifiers other) {
-            for (Modifier<?> newMod : other.modifiers.values()) {
-                if (modifiers.containsKey(newMod.type)) {
-                    modifiers.put(newMod.type, modifiers.get(newMod.type).tryMerge(newMod));
-                } else {
-                    modifiers.put(newMod.type, newMod);
-                }
-            }
+            mergeAll(other.present, other.values);
             return this;
         }
 
@@ -108,32 +140,26 @@ public class MiasmaPropertyModifiers {
          * method.  Repeated invocations will make distinct {@link MiasmaPropertyModifiers} instances.
          */
         public MiasmaPropertyModifiers build() {
-            return new MiasmaPropertyModifiers(new HashMap<>(modifiers));
-        }
-    }
-
-    /** Helper class to hold onto the pair of a modifier type and a value of that type. */
-    private static class Modifier<T> {
-        public final MiasmaPropertyModifierType<T> type;
-        public final T value;
-
-        public Modifier(MiasmaPropertyModifierType<T> type, T value) {
-            this.type = type;
-            this.value = value;
-        }
-
-        public <U> Modifier<T> tryMerge(Modifier<U> other) {
-            return mergeValue(other.castOrZero(type).value);
+            return new MiasmaPropertyModifiers(present, values.clone());
         }
 
-        private Modifier<T> mergeValue(T value) {
-            return new Modifier<>(type, type.merge(this.value, value));
+        private void mergeAll(int otherPresent, long[] otherValues) {
+            for (int i = 0; i < otherValues.length; i++) {
+                if ((otherPresent & (1 << i)) != 0) {
+                    merge(i, otherValues[i]);
+                }
+            }
         }
 
-        private <U> Modifier<U> castOrZero(MiasmaPropertyModifierType<U> expectedType) {
-            return type.checkedCast(expectedType, value)
-                    .map(t -> new Modifier<>(expectedType, t))
-                    .orElseGet(() -> new Modifier<>(expectedType, expectedType.getZero()));
+        private void merge(int ordinal, long value) {
+            int bit = 1 << ordinal;
+            if ((present & bit) != 0) {
+                values[ordinal] = PackedFraction.multiply(values[ordinal], value);
+            } else {
+                // The first modifier of a type is kept as given, as with Fraction
+                values[ordinal] = value;
+                present |= bit;
+            }
         }
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.api.property;
+
+import org.apache.commons.lang3.math.Fraction;
+
+/**
+ * Rational numbers packed into a single {@code long}: the numerator in the high 32 bits and the denominator in the low
+ * 32 bits.
+ * <p>
+ *     Arithmetic mirrors {@link Fraction} exactly, including which results are reduced and when an
+ *     {@link ArithmeticException} is thrown, so packed values round-trip to the same {@link Fraction} instances.
+ * </p>
+ */
+final class PackedFraction {
+    static final long ONE = pack(1, 1);
+    static final long ZERO = pack(0, 1);
+
+    private PackedFraction() { }
+
+    static long pack(int numerator, int denominator) {
+        return ((long) numerator << 32) | (denominator & 0xFFFFFFFFL);
+    }
+
+    static long pack(Fraction fraction) {
+        return pack(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    static int numerator(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    static int denominator(long packed) {
+        return (int) packed;
+    }
+
+    static Fraction toFraction(long packed) {
+        return Fraction.getFraction(numerator(packed), denominator(packed));
+    }
+
+    /** Equivalent to {@link Fraction#multiplyBy(Fraction)}. */
+    static long multiply(long a, long b) {
+        int n1 = numerator(a);
+        int d1 = denominator(a);
+        int n2 = numerator(b);
+        int d2 = denominator(b);
+        if (n1 == 0 || n2 == 0) {
+            return ZERO;
+        }
+        // Cross-reduce first so we only overflow if the result must (Knuth 4.5.1)
+        int g1 = gcd(n1, d2);
+        int g2 = gcd(n2, d1);
+        long numerator = (long) (n1 / g1) * (n2 / g2);
+        if (numerator < Integer.MIN_VALUE || numerator > Integer.MAX_VALUE) {
+            throw new ArithmeticException("overflow: mul");
+        }
+        long denominator = (long) (d1 / g2) * (d2 / g1);
+        if (denominator > Integer.MAX_VALUE) {
+            throw new ArithmeticException("overflow: mulPos");
+        }
+        int g = gcd((int) numerator, (int) denominator);
+        return pack((int) numerator / g, (int) denominator / g);
+    }
+
+    /**
+     * Returns the greatest common divisor of two non-zero values.  Denominators are always positive, so unlike
+     * {@link Fraction} this never has to handle a divisor of 2^31.
+     */
+    private static int gcd(int a, int b) {
+        long u = Math.abs((long) a);
+        long v = Math.abs((long) b);
+        while (v != 0) {
+            long t = u % v;
+            u = v;
+            v = t;
+        }
+        return (int) u;
+    }
+}
@@ -28,18 +28,18 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.fml.InterModComms;
 import top.theillusivec4.curios.api.CuriosApi;
 import top.theillusivec4.curios.api.CuriosCapability;
 import top.theillusivec4.curios.api.SlotTypeMessage;
+import top.theillusivec4.curios.api.event.CurioChangeEvent;
 import top.theillusivec4.curios.api.type.capability.ICurio;
+import top.theillusivec4.curios.api.type.capability.ICuriosItemHandler;
 import top.theillusivec4.curios.api.type.inventory.ICurioStacksHandler;
 import top.theillusivec4.curios.api.type.inventory.IDynamicStackHandler;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Integration module for Curios by TheIllusiveC4.
@@ -53,6 +53,7 @@ public class CuriosIntegration {
 
     public CuriosIntegration() {
         MinecraftForge.EVENT_BUS.addGenericListener(ItemStack.class, this::attachCapabilities);
+        MinecraftForge.EVENT_BUS.addListener(this::onCurioChange);
     }
 
     public void setupCurioSlots() {
@@ -65,26 +66,32 @@ public class CuriosIntegration {
         return new MiasmaModifierLocator(
                 new ResourceLocation(MiasmaIntegrationMod.MODID, "mod_curios"),
                 200,
-                this::findMiasmaModifierCurios
+                this::visitMiasmaModifierCurios
         );
     }
 
-    private List<IMiasmaModifier> findMiasmaModifierCurios(LivingEntity entity) {
-        return CuriosApi.getCuriosHelper().getCuriosHandler(entity).map(handler -> {
-            List<IMiasmaModifier> foundCurios = new LinkedList<>();
-            Map<String, ICurioStacksHandler> curios = handler.getCurios();
+    private boolean visitMiasmaModifierCurios(LivingEntity entity, MiasmaModifierLocator.Visitor visitor) {
+        ICuriosItemHandler handler = CuriosApi.getCuriosHelper().getCuriosHandler(entity).orElse(null);
+        if (handler == null) {
+            return true;
+        }
 
-            for (String slotId : curios.keySet()) {
-                IDynamicStackHandler stackHandler = curios.get(slotId).getStacks();
+        Capability<IMiasmaModifier> capability = MiasmaAPI.getInstance().getModifierUtils().getCapability();
+        for (ICurioStacksHandler stacksHandler : handler.getCurios().values()) {
+            IDynamicStackHandler stackHandler = stacksHandler.getStacks();
 
-                for (int i = 0; i < stackHandler.getSlots(); i++) {
-                    ItemStack is = stackHandler.getStackInSlot(i);
-                    is.getCapability(MiasmaAPI.getInstance().getModifierUtils().getCapability()).ifPresent(foundCurios::add);
+            for (int i = 0; i < stackHandler.getSlots(); i++) {
+                IMiasmaModifier miasmaModifier = stackHandler.getStackInSlot(i).getCapability(capability).orElse(null);
+                if (miasmaModifier != null && !visitor.visit(miasmaModifier)) {
+                    return false;
                 }
             }
+        }
+        return true;
+    }
 
-            return foundCurios;
-        }).orElse(new LinkedList<>());
+    private void onCurioChange(CurioChangeEvent event) {
+        MiasmaAPI.getInstance().invalidateModifiers(event.getEntityLiving());
     }
 
     private void attachCapabilities(AttachCapabilitiesEvent<ItemStack> event) {
@@ -0,0 +1,74 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib;
+
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Field;
+
+/**
+ * Checks whether any listeners are subscribed to an event on a given {@link IEventBus}, so that events nobody listens
+ * for need not be constructed at all.
+ * <p>
+ *     Forge keeps each event class's listeners in a {@link ListenerList}, which caches them as an array and only
+ *     rebuilds it when listeners are added or removed, so a check is cheap and always current.  The lists are indexed by
+ *     an id private to each {@link EventBus}, which is read reflectively.  If it can't be read, every check reports that
+ *     listeners are present.
+ * </p>
+ */
+public class EventListenerCheck {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final ClassValue<ListenerList> LISTENER_LISTS = new ClassValue<ListenerList>() {
+        @Override
+        protected ListenerList computeValue(Class<?> eventClass) {
+            return EventListenerHelper.getListenerList(eventClass);
+        }
+    };
+
+    private final int busID;
+
+    /** Creates a listener check for the given event bus. */
+    public EventListenerCheck(IEventBus eventBus) {
+        this.busID = findBusID(eventBus);
+    }
+
+    /** Returns {@code true} if any listener, including those of superclass events, would receive the given event. */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return busID < 0 || LISTENER_LISTS.get(eventClass).getListeners(busID).length > 0;
+    }
+
+    private static int findBusID(IEventBus eventBus) {
+        if (eventBus instanceof EventBus) {
+            try {
+                Field field = EventBus.class.getDeclaredField("busID");
+                field.setAccessible(true);
+                return field.getInt(eventBus);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                LOGGER.warn("Unable to read the event bus id.  Events will always be posted.", ex);
+            }
+        }
+        return -1;
+    }
+}
@@ -29,6 +29,10 @@ import java.util.function.Predicate;
  * <p>
  *     Users of this class must avoid using {@code "version"} as a tag key in their serializer.
  * </p>
+ * <p>
+ *     Older formats may either be accepted directly by the deserializer, or upgraded one version at a time by a
+ *     {@link Migration} chain so that the deserializer only ever sees the current version.
+ * </p>
  */
 public class VersionedNBT {
     public static final String KEY_VERSION = "version";
@@ -51,4 +55,45 @@ public class VersionedNBT {
         }
         whenEmpty.run();
     }
+
+    /**
+     * Deserializes a tag written at the current version, first migrating tags written by older versions.
+     *
+     * @param nbt the tag to deserialize
+     * @param currentVersion the version written by the matching serializer
+     * @param migration upgrades tags from older versions, one version at a time
+     * @param deserializer deserializes a tag at the current version
+     * @param whenEmpty called if the tag is missing, from an unknown version or can't be migrated
+     */
+    public static void deserialize(INBT nbt, int currentVersion, Migration migration, Consumer<CompoundNBT> deserializer, Runnable whenEmpty) {
+        if (nbt instanceof CompoundNBT) {
+            CompoundNBT tag = (CompoundNBT) nbt;
+            int version = tag.getInt(KEY_VERSION);
+            while (tag != null && version > 0 && version < currentVersion) {
+                tag = migration.migrate(version, tag);
+                version++;
+            }
+            if (tag != null && version == currentVersion) {
+                deserializer.accept(tag);
+                return;
+            }
+        }
+        whenEmpty.run();
+    }
+
+    /** A step in a migration chain. */
+    @FunctionalInterface
+    public interface Migration {
+        /**
+         * Upgrades a tag by a single version.
+         * <p>
+         *     The returned tag need not have its version set.  It may be the given tag, modified in place.
+         * </p>
+         *
+         * @param fromVersion the version of the given tag
+         * @param tag the tag to upgrade
+         * @return the tag at version {@code fromVersion + 1}, or {@code null} if it can't be upgraded
+         */
+        CompoundNBT migrate(int fromVersion, CompoundNBT tag);
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib.client.render;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
+import net.minecraft.client.renderer.texture.AtlasTexture;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.vector.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.function.Function;
+
+/**
+ * A sprite within a texture atlas, resolved once and drawn as a tinted quad.
+ * <p>
+ *     The {@link TextureAtlasSprite} is cached rather than looked up on every draw.  Its owner must call
+ *     {@link #onTextureStitch(AtlasTexture)} from {@link net.minecraftforge.client.event.TextureStitchEvent.Post} so the
+ *     cached sprite is replaced whenever the atlas is rebuilt.
+ * </p>
+ * <p>
+ *     The tint is written into the vertices, rather than set through {@code glColor}, so drawing leaves no color state
+ *     behind.
+ * </p>
+ */
+public class AtlasSprite {
+    private final ResourceLocation atlasLocation;
+    private final ResourceLocation spriteLocation;
+    private final Function<ResourceLocation, TextureAtlasSprite> atlasLookup;
+    private TextureAtlasSprite sprite = null;
+
+    /**
+     * Creates a new atlas sprite.
+     * <p>
+     *     Not every atlas is registered with {@link net.minecraft.client.Minecraft#getTextureAtlas(ResourceLocation)},
+     *     so the caller supplies the lookup into its atlas.  The mob effect atlas, for example, is only reachable
+     *     through {@link net.minecraft.client.Minecraft#getMobEffectTextures()}.
+     * </p>
+     *
+     * @param atlasLocation the location of the texture atlas
+     * @param spriteLocation the location of the sprite within the atlas
+     * @param atlasLookup looks up a sprite by location in the atlas, used until the atlas is next stitched
+     */
+    public AtlasSprite(ResourceLocation atlasLocation, ResourceLocation spriteLocation, Function<ResourceLocation, TextureAtlasSprite> atlasLookup) {
+        this.atlasLocation = atlasLocation;
+        this.spriteLocation = spriteLocation;
+        this.atlasLookup = atlasLookup;
+    }
+
+    /** Refreshes the cached sprite if the given atlas is the one this sprite belongs to. */
+    public void onTextureStitch(AtlasTexture atlas) {
+        if (atlas.location().equals(atlasLocation)) {
+            sprite = atlas.getSprite(spriteLocation);
+        }
+    }
+
+    /** Returns the sprite, resolving it if the atlas hasn't been stitched since this was created. */
+    public TextureAtlasSprite getSprite() {
+        if (sprite == null) {
+            sprite = atlasLookup.apply(spriteLocation);
+        }
+        return sprite;
+    }
+
+    /**
+     * Draws this sprite onto the screen, tinted by the given color.
+     *
+     * @param mStack the matrix stack to render into
+     * @param x the x coordinate on the screen to render to
+     * @param y the y coordinate on the screen to render to
+     * @param z the z coordinate or "blit offset" to render to
+     * @param width width to render the sprite
+     * @param height height to render the sprite
+     * @param tint the color to tint the sprite with
+     * @param alpha the alpha to draw the sprite with, in place of the tint's
+     */
+    public void draw(MatrixStack mStack, int x, int y, int z, int width, int height, Color tint, float alpha) {
+        draw(mStack, x, y, z, width, height, tint.getColorRGB(), alpha);
+    }
+
+    /**
+     * Draws this sprite onto the screen, tinted by the given packed color.
+     *
+     * @param mStack the matrix stack to render into
+     * @param x the x coordinate on the screen to render to
+     * @param y the y coordinate on the screen to render to
+     * @param z the z coordinate or "blit offset" to render to
+     * @param width width to render the sprite
+     * @param height height to render the sprite
+     * @param tintRGB the packed RGB color to tint the sprite with.  Any alpha channel is ignored.
+     * @param alpha the alpha to draw the sprite with
+     */
+    public void draw(MatrixStack mStack, int x, int y, int z, int width, int height, int tintRGB, float alpha) {
+        TextureAtlasSprite sprite = getSprite();
+        Minecraft.getInstance().getTextureManager().bind(sprite.atlas().location());
+
+        Matrix4f matrix = mStack.last().pose();
+        float x1 = x + width;
+        float y1 = y + height;
+        float u0 = sprite.getU0();
+        float u1 = sprite.getU1();
+        float v0 = sprite.getV0();
+        float v1 = sprite.getV1();
+        int red = (tintRGB >> 16) & 0xFF;
+        int green = (tintRGB >> 8) & 0xFF;
+        int blue = tintRGB & 0xFF;
+        int a = (int) (Math.max(0.0f, Math.min(alpha, 1.0f)) * 255.0f);
+
+        BufferBuilder buffer = Tessellator.getInstance().getBuilder();
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR_TEX);
+        buffer.vertex(matrix, x, y1, z).color(red, green, blue, a).uv(u0, v1).endVertex();
+        buffer.vertex(matrix, x1, y1, z).color(red, green, blue, a).uv(u1, v1).endVertex();
+        buffer.vertex(matrix, x1, y, z).color(red, green, blue, a).uv(u1, v0).endVertex();
+        buffer.vertex(matrix, x, y, z).color(red, green, blue, a).uv(u0, v0).endVertex();
+        buffer.end();
+        WorldVertexBufferUploader.end(buffer);
+    }
+}
@@ -21,122 +21,61 @@ import org.apache.commons.lang3.StringUtils;
 
 /**
  * Class representing a color, in both RGB and HSV.
+ * <p>
+ *     A thin wrapper around a color packed into an ARGB {@code int}, with every channel derived through
+ *     {@link PackedColor}.  Each derived color is a new instance.  For color math done every frame, prefer working with
+ *     packed values through {@link PackedColor} directly.
+ * </p>
  */
 public class Color {
-    public final float red;
-    public final float green;
-    public final float blue;
+    private final int colorARGB;
 
-    public final float hue;
-    public final float saturation;
-    public final float value;
-
-    public final float alpha;
-
-    private Color(float red, float green, float blue, float hue, float saturation, float value, float alpha) {
-        this.red = red;
-        this.green = green;
-        this.blue = blue;
-        this.hue = hue;
-        this.saturation = saturation;
-        this.value = value;
-        this.alpha = alpha;
+    private Color(int colorARGB) {
+        this.colorARGB = colorARGB;
     }
 
     public static Color fromRGB(float red, float green, float blue, float alpha) {
-        // https://www.rapidtables.com/convert/color/rgb-to-hsv.html
-        float _red = clampFloat(red);
-        float _green = clampFloat(green);
-        float _blue = clampFloat(blue);
+        return new Color(PackedColor.argb(alpha, red, green, blue));
+    }
 
-        float max = Math.max(Math.max(_red, _green), _blue);
-        float min = Math.min(Math.min(_red, _green), _blue);
-        float delta = max - min;
+    public static Color fromHSV(float hue, float saturation, float value, float alpha) {
+        return new Color(PackedColor.fromHSV(hue, saturation, value, alpha));
+    }
 
-        float _hue;
-        if (delta == 0.0f) {
-            _hue = 0.0f;
-        } else if (_red >= _green && _red >= _blue) {
-            _hue = 60.0f * (((_green - _blue) / delta) % 6.0f);
-        } else if (_green >= _red && _green >= _blue) {
-            _hue = 60.0f * (((_blue - _red) / delta) + 2.0f);
-        } else {
-            _hue = 60.0f * (((_red - _green) / delta) + 4.0f);
-        }
+    public static Color fromPackedRGB(long color) {
+        return fromPackedRGBA(0xFF000000 | color);
+    }
 
-        float _saturation;
-        if (max == 0.0f) {
-            _saturation = 0;
-        } else {
-            _saturation = delta / max;
-        }
+    public static Color fromPackedRGBA(long color) {
+        return new Color((int) color);
+    }
 
-        float _value = max;
+    public float getRed() {
+        return PackedColor.red(colorARGB);
+    }
 
-        alpha = clampFloat(alpha);
+    public float getGreen() {
+        return PackedColor.green(colorARGB);
+    }
 
-        return new Color(_red, _green, _blue, _hue, _saturation, _value, alpha);
+    public float getBlue() {
+        return PackedColor.blue(colorARGB);
     }
 
-    public static Color fromHSV(float hue, float saturation, float value, float alpha) {
-        // https://www.rapidtables.com/convert/color/hsv-to-rgb.html
-        float _hue = Math.max(0.0f, Math.min(hue, 360.0f));
-        float _saturation = clampFloat(saturation);
-        float _value = clampFloat(value);
-        float _alpha = clampFloat(alpha);
-
-        if (saturation == 0.0f) {
-            return new Color(_value, _value, _value, _hue, _saturation, _value, _alpha);
-        } else {
-            float c = _value * _saturation;
-            float x = c * (1 - Math.abs(((_hue / 60.0f) % 2.0f) - 1));
-            float m = _value - c;
-
-            float _red;
-            float _green;
-            float _blue;
-
-            if (_hue < 60.0f) {
-                _red = c;
-                _green = x;
-                _blue = 0;
-            } else if (_hue < 120.0f) {
-                _red = x;
-                _green = c;
-                _blue = 0;
-            } else if (_hue < 180.0f) {
-                _red = 0;
-                _green = c;
-                _blue = x;
-            } else if (_hue < 240.0f) {
-                _red = 0;
-                _green = x;
-                _blue = c;
-            } else if (_hue < 300.0f) {
-                _red = x;
-                _green = 0;
-                _blue = c;
-            } else {
-                _red = c;
-                _green = 0;
-                _blue = x;
-            }
-
-            return new Color(_red + m, _green + m, _blue + m, _hue, _saturation, _value, _alpha);
-        }
+    public float getHue() {
+        return PackedColor.hue(colorARGB);
     }
 
-    public static Color fromPackedRGB(long color) {
-        return fromPackedRGBA(0xFF000000 | color);
+    public float getSaturation() {
+        return PackedColor.saturation(colorARGB);
     }
 
-    public static Color fromPackedRGBA(long color) {
-        return fromRGB(
-                argbToColorChannel(color, 16),
-                argbToColorChannel(color, 8),
-                argbToColorChannel(color, 0),
-                argbToColorChannel(color, 24)
-        );
+    public float getValue() {
+        return PackedColor.value(colorARGB);
+    }
+
+    public float getAlpha() {
+        return PackedColor.alpha(colorARGB);
     }
 
     public int getColorRGB() {
@@ -144,68 +83,59 @@ public class Color {
     }
 
     public int getColorARGB() {
-        return (int) (colorChannelToARGB(alpha, 24)
-                | colorChannelToARGB(red, 16)
-                | colorChannelToARGB(green, 8)
-                | colorChannelToARGB(blue, 0));
+        return colorARGB;
     }
 
     public Color withRed(float red) {
-        return fromRGB(red, green, blue, alpha);
+        return fromRGB(red, getGreen(), getBlue(), getAlpha());
     }
 
     public Color withGreen(float green) {
-        return fromRGB(red, green, blue, alpha);
+        return fromRGB(getRed(), green, getBlue(), getAlpha());
     }
 
     public Color withBlue(float blue) {
-        return fromRGB(red, green, blue, alpha);
+        return fromRGB(getRed(), getGreen(), blue, getAlpha());
     }
 
     public Color withHue(float hue) {
-        return fromHSV(hue, saturation, value, alpha);
+        return fromHSV(hue, getSaturation(), getValue(), getAlpha());
     }
 
     public Color withSaturation(float saturation) {
-        return fromHSV(hue, saturation, value, alpha);
+        return new Color(PackedColor.withSaturation(colorARGB, saturation));
     }
 
     public Color withValue(float value) {
-        return fromHSV(hue, saturation, value, alpha);
+        return new Color(PackedColor.withValue(colorARGB, value));
     }
 
     public Color withAlpha(float alpha) {
-        return new Color(red, green, blue, hue, saturation, value, alpha);
+        return new Color(PackedColor.withAlpha(colorARGB, alpha));
     }
 
     public Color multiply(Color color) {
-        return fromRGB(this.red * color.red, this.green * color.green, this.blue * color.blue, color.alpha);
+        return new Color(PackedColor.multiply(colorARGB, color.colorARGB));
     }
 
     @Override
-    public String toString() {
-        return String.format(
-                "MiasmaColor(r:%.2f, g:%.2f, b:%.2f, h:%s, s:%.2f, v:%.2f, a:%.2f, argb:%s)",
-                red, green, blue, StringUtils.leftPad(String.format("%.1f", hue), 5), saturation, value, alpha,
-                "0x" + getColorARGBString()
-        );
-    }
-
-    private static float clampFloat(float f) {
-        return Math.max(0.0f, Math.min(f, 1.0f));
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return colorARGB == ((Color) o).colorARGB;
     }
 
-    private static float argbToColorChannel(long colorARGB, int shift) {
-        return (float) ((colorARGB >> shift) & 0xFF) / 255.0F;
-    }
-
-    private static long colorChannelToARGB(float colorChannel, int shift) {
-        return (long) (colorChannel * 255.0F) << shift;
+    @Override
+    public int hashCode() {
+        return colorARGB;
     }
 
-    private String getColorARGBString() {
-        long l = getColorARGB();
-        if (l < 1) { l += Integer.MAX_VALUE; }
-        return StringUtils.leftPad(Long.toString(l, 16), 8, '0');
+    @Override
+    public String toString() {
+        return String.format(
+                "MiasmaColor(r:%.2f, g:%.2f, b:%.2f, h:%s, s:%.2f, v:%.2f, a:%.2f, argb:%s)",
+                getRed(), getGreen(), getBlue(), StringUtils.leftPad(String.format("%.1f", getHue()), 5),
+                getSaturation(), getValue(), getAlpha(), "0x" + StringUtils.leftPad(Integer.toHexString(colorARGB), 8, '0')
+        );
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib.client.render;
+
+import net.minecraft.util.StringUtils;
+
+import java.util.Optional;
+
+/**
+ * A tick duration formatted for display, which is only reformatted when the displayed second changes.
+ * <p>
+ *     Intended for countdowns drawn every frame.  Each countdown on screen should have its own instance.
+ * </p>
+ */
+public class DurationText {
+    private final int padSize;
+    private final String unknown;
+    private int seconds = Integer.MIN_VALUE;
+    private String text = null;
+
+    /**
+     * Creates a formatted duration.
+     *
+     * @param padSize the width to left pad the formatted duration to
+     * @param unknown the text to show when the duration is unknown
+     */
+    public DurationText(int padSize, String unknown) {
+        this.padSize = padSize;
+        this.unknown = unknown;
+    }
+
+    /**
+     * Returns the duration formatted as per {@link StringUtils#formatTickDuration(int)}, padded to width.
+     *
+     * @param ticks the duration in game ticks
+     */
+    public String format(int ticks) {
+        int seconds = ticks / 20;
+        if (seconds != this.seconds || text == null) {
+            text = org.apache.commons.lang3.StringUtils.leftPad(StringUtils.formatTickDuration(ticks), padSize, ' ');
+            this.seconds = seconds;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the duration formatted as per {@link #format(int)}, or the unknown text if there is none.
+     *
+     * @param ticks the duration in game ticks, if known
+     */
+    public String format(Optional<Integer> ticks) {
+        return ticks.isPresent() ? format(ticks.get()) : unknown;
+    }
+}
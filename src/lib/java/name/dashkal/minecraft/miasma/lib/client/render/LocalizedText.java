@@ -0,0 +1,54 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib.client.render;
+
+import net.minecraft.util.text.LanguageMap;
+
+import java.util.function.Supplier;
+
+/**
+ * Text built from localized strings, cached until the language changes.
+ * <p>
+ *     Every resource reload, including a change of language, installs a new {@link LanguageMap}, so the text is
+ *     rebuilt only when that instance changes.
+ * </p>
+ */
+public class LocalizedText {
+    private final Supplier<String> builder;
+    private LanguageMap language = null;
+    private String text = null;
+
+    /**
+     * Creates localized text.
+     *
+     * @param builder builds the text, typically through {@link net.minecraft.client.resources.I18n#get(String, Object...)}
+     */
+    public LocalizedText(Supplier<String> builder) {
+        this.builder = builder;
+    }
+
+    /** Returns the text, in the current language. */
+    public String get() {
+        LanguageMap current = LanguageMap.getInstance();
+        if (current != language || text == null) {
+            text = builder.get();
+            language = current;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib.client.render;
+
+/**
+ * Utility class for working with colors packed into ARGB {@code int}s, as used by Minecraft's rendering methods.
+ * <p>
+ *     These are the allocation free counterparts to the {@link Color} methods, suitable for use every frame.
+ *     {@link Color} wraps a packed color and delegates to these, so both always give the same results.
+ * </p>
+ */
+public class PackedColor {
+    /** Packs the given channels, each between {@code 0.0f} and {@code 1.0f}, into an ARGB color. */
+    public static int argb(float alpha, float red, float green, float blue) {
+        return toChannel(alpha) << 24 | toChannel(red) << 16 | toChannel(green) << 8 | toChannel(blue);
+    }
+
+    /** Returns the alpha channel of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float alpha(int argb) {
+        return fromChannel(argb, 24);
+    }
+
+    /** Returns the red channel of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float red(int argb) {
+        return fromChannel(argb, 16);
+    }
+
+    /** Returns the green channel of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float green(int argb) {
+        return fromChannel(argb, 8);
+    }
+
+    /** Returns the blue channel of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float blue(int argb) {
+        return fromChannel(argb, 0);
+    }
+
+    /** Returns the packed color with its alpha channel replaced. */
+    public static int withAlpha(int argb, float alpha) {
+        return toChannel(alpha) << 24 | (argb & 0xFFFFFF);
+    }
+
+    /** Multiplies two packed colors channel by channel, taking the alpha of the second, as {@link Color#multiply}. */
+    public static int multiply(int argb, int other) {
+        return argb(alpha(other), red(argb) * red(other), green(argb) * green(other), blue(argb) * blue(other));
+    }
+
+    /**
+     * Linearly blends two packed colors, including alpha.
+     *
+     * @param from the color at {@code t = 0}
+     * @param to the color at {@code t = 1}
+     * @param t the blend factor, between {@code 0.0f} and {@code 1.0f}
+     */
+    public static int blend(int from, int to, float t) {
+        return argb(
+                lerp(alpha(from), alpha(to), t),
+                lerp(red(from), red(to), t),
+                lerp(green(from), green(to), t),
+                lerp(blue(from), blue(to), t)
+        );
+    }
+
+    /** Returns the packed color with its HSV saturation replaced, as {@link Color#withSaturation(float)}. */
+    public static int withSaturation(int argb, float saturation) {
+        return withSaturationValue(argb, saturation, value(argb));
+    }
+
+    /** Returns the packed color with its HSV value replaced, as {@link Color#withValue(float)}. */
+    public static int withValue(int argb, float value) {
+        return withSaturationValue(argb, saturation(argb), value);
+    }
+
+    /** Returns the packed color with both its HSV saturation and value replaced, keeping its hue and alpha. */
+    public static int withSaturationValue(int argb, float saturation, float value) {
+        return fromHSV(hue(argb), saturation, value, alpha(argb));
+    }
+
+    /** Returns the HSV hue of a packed color, between {@code 0.0f} and {@code 360.0f}. */
+    public static float hue(int argb) {
+        float red = red(argb);
+        float green = green(argb);
+        float blue = blue(argb);
+        float max = Math.max(Math.max(red, green), blue);
+        float delta = max - Math.min(Math.min(red, green), blue);
+        if (delta == 0.0f) {
+            return 0.0f;
+        } else if (red >= green && red >= blue) {
+            // Reds leaning towards blue come out negative, so wrap them around into range
+            float hue = 60.0f * (((green - blue) / delta) % 6.0f);
+            return hue < 0.0f ? hue + 360.0f : hue;
+        } else if (green >= red && green >= blue) {
+            return 60.0f * (((blue - red) / delta) + 2.0f);
+        } else {
+            return 60.0f * (((red - green) / delta) + 4.0f);
+        }
+    }
+
+    /** Returns the HSV saturation of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float saturation(int argb) {
+        float red = red(argb);
+        float green = green(argb);
+        float blue = blue(argb);
+        float max = Math.max(Math.max(red, green), blue);
+        return max == 0.0f ? 0.0f : (max - Math.min(Math.min(red, green), blue)) / max;
+    }
+
+    /** Returns the HSV value of a packed color, between {@code 0.0f} and {@code 1.0f}. */
+    public static float value(int argb) {
+        return Math.max(Math.max(red(argb), green(argb)), blue(argb));
+    }
+
+    /** Packs a color given in HSV, as {@link Color#fromHSV(float, float, float, float)}. */
+    public static int fromHSV(float hue, float saturation, float value, float alpha) {
+        float h = Math.max(0.0f, Math.min(hue, 360.0f));
+        float s = clamp(saturation);
+        float v = clamp(value);
+        if (s == 0.0f) {
+            return argb(alpha, v, v, v);
+        }
+
+        float c = v * s;
+        float x = c * (1 - Math.abs(((h / 60.0f) % 2.0f) - 1));
+        float m = v - c;
+        if (h < 60.0f) {
+            return argb(alpha, c + m, x + m, m);
+        } else if (h < 120.0f) {
+            return argb(alpha, x + m, c + m, m);
+        } else if (h < 180.0f) {
+            return argb(alpha, m, c + m, x + m);
+        } else if (h < 240.0f) {
+            return argb(alpha, m, x + m, c + m);
+        } else if (h < 300.0f) {
+            return argb(alpha, x + m, m, c + m);
+        } else {
+            return argb(alpha, c + m, m, x + m);
+        }
+    }
+
+    private static float lerp(float from, float to, float t) {
+        return from + (to - from) * clamp(t);
+    }
+
+    private static float clamp(float f) {
+        return Math.max(0.0f, Math.min(f, 1.0f));
+    }
+
+    private static int toChannel(float channel) {
+        return (int) (clamp(channel) * 255.0F);
+    }
+
+    private static float fromChannel(int argb, int shift) {
+        return (float) ((argb >> shift) & 0xFF) / 255.0F;
+    }
+}
@@ -110,7 +110,7 @@ public class RenderUtils {
      * @see GL11#glColor3f
      */
     public static void setGLColor3(Color color) {
-        GL11.glColor3f(color.red, color.green, color.blue);
+        GL11.glColor3f(color.getRed(), color.getGreen(), color.getBlue());
     }
 
     /**
@@ -119,7 +119,7 @@ public class RenderUtils {
      * @see GL11#glColor4f
      */
     public static void setGLColor4(Color color) {
-        GL11.glColor4f(color.red, color.green, color.blue, color.alpha);
+        GL11.glColor4f(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
     }
 
     /**
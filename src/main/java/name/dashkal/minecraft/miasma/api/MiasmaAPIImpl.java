@@ -20,13 +20,26 @@ package name.dashkal.minecraft.miasma.api;
 import name.dashkal.minecraft.miasma.MiasmaMod;
 import name.dashkal.minecraft.miasma.api.capability.MiasmaModifierUtils;
 import name.dashkal.minecraft.miasma.api.capability.MiasmaModifierUtilsImpl;
+import name.dashkal.minecraft.miasma.api.listener.MiasmaListener;
 import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaModifierCapability;
 import name.dashkal.minecraft.miasma.common.logic.Infection;
+import name.dashkal.minecraft.miasma.common.logic.MiasmaListeners;
 import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
+import name.dashkal.minecraft.miasma.common.logic.MiasmaWorld;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * Implementation class for the Miasma API.
@@ -55,6 +68,33 @@ public class MiasmaAPIImpl extends MiasmaAPI {
         return MiasmaHandlerCapability.getHandler(entity).resolve().flatMap(IMiasmaHandler::getInfection).map(Infection::getSnapshot);
     }
 
+    @Override
+    public void forEachInfected(World world, BiConsumer<LivingEntity, IInfection> consumer) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(world);
+        if (miasmaWorld != null) {
+            miasmaWorld.forEachInfected((entity, infection) -> consumer.accept(entity, infection.getSnapshot()));
+        }
+    }
+
+    @Override
+    public Map<InfectionStage, Integer> countByStage(World world) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(world);
+        if (miasmaWorld != null) {
+            return miasmaWorld.countByStage();
+        }
+        Map<InfectionStage, Integer> counts = new EnumMap<>(InfectionStage.class);
+        for (InfectionStage stage : InfectionStage.values()) {
+            counts.put(stage, 0);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<LivingEntity> getInfectedIn(World world, AxisAlignedBB area) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(world);
+        return miasmaWorld != null ? miasmaWorld.getInfectedIn(area) : new ArrayList<>();
+    }
+
     @Override
     public boolean tryApplyInfection(LivingEntity entity, InfectionStage stage) {
         return MiasmaHandlerCapability.withCapability(entity, miasmaHandler ->
@@ -62,6 +102,11 @@ public class MiasmaAPIImpl extends MiasmaAPI {
         ).orElse(false);
     }
 
+    @Override
+    public BitSet tryApplyInfection(Collection<? extends LivingEntity> entities, InfectionStage stage) {
+        return MiasmaLogic.tryApplyInfections(entities, stage);
+    }
+
     @Override
     public boolean tryMiasmaPulse(LivingEntity entity) {
         return MiasmaHandlerCapability.getHandler(entity).resolve().flatMap(miasmaHandler ->
@@ -76,6 +121,36 @@ public class MiasmaAPIImpl extends MiasmaAPI {
         MiasmaHandlerCapability.ifPresent(entity, miasmaHandler -> MiasmaLogic.removeMiasma(entity, miasmaHandler));
     }
 
+    @Override
+    public void invalidateModifiers(LivingEntity entity) {
+        MiasmaModifierCapability.invalidateModifiers(entity);
+    }
+
+    @Override
+    public void onApply(MiasmaListener.Apply listener) {
+        MiasmaListeners.addApplyListener(listener);
+    }
+
+    @Override
+    public void onPulse(MiasmaListener.Pulse listener) {
+        MiasmaListeners.addPulseListener(listener);
+    }
+
+    @Override
+    public void onStageChange(MiasmaListener.StageChange listener) {
+        MiasmaListeners.addStageChangeListener(listener);
+    }
+
+    @Override
+    public void onKillCheck(MiasmaListener.KillCheck listener) {
+        MiasmaListeners.addKillCheckListener(listener);
+    }
+
+    @Override
+    public void onRemove(MiasmaListener.Remove listener) {
+        MiasmaListeners.addRemoveListener(listener);
+    }
+
     @Override
     public MiasmaModifierUtils getModifierUtils() {
         return MIASMA_GEAR_UTILS;
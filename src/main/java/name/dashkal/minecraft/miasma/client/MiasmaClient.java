@@ -17,20 +17,43 @@
  */
 package name.dashkal.minecraft.miasma.client;
 
+import name.dashkal.minecraft.miasma.api.InfectionMode;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaHandler;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
 import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
+import name.dashkal.minecraft.miasma.common.network.MiasmaHandlerSyncPacket;
 import net.minecraft.client.Minecraft;
-import net.minecraft.entity.LivingEntity;
-import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.client.entity.player.ClientPlayerEntity;
+import net.minecraft.util.text.Style;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Class responsible for providing a safe entry point from common code (like packet handlers).
  */
 public class MiasmaClient {
     public static final MiasmaClient INSTANCE = new MiasmaClient();
+
+    // Translation keys of the overlay messages shown on each intensifying pulse, and their style
+    private static final Map<InfectionStage, String> OVERLAY_MESSAGE_KEYS = new EnumMap<>(InfectionStage.class);
+    private static final Style OVERLAY_MESSAGE_STYLE = Style.EMPTY.withColor(TextFormatting.RED);
+    static {
+        for (InfectionStage stage : InfectionStage.values()) {
+            OVERLAY_MESSAGE_KEYS.put(stage, "miasma.message." + stage.name().toLowerCase());
+        }
+    }
+
     private boolean enableDebugOverlay;
+    // The handler sync state last received from the server
+    private final int[] syncState = new int[MiasmaHandler.SYNC_STATE_SIZE];
+    // Local game time at which the overlay message is next due, while the synced infection is intensifying
+    private long nextOverlayMessageTime = Long.MAX_VALUE;
 
     /** Returns {@code true} if the miasma debug overlay is enabled. */
     public boolean isEnableDebugOverlay() {
@@ -42,13 +65,65 @@ public class MiasmaClient {
         this.enableDebugOverlay = enableDebugOverlay;
     }
 
-    /** Synchronizes the local player's Miasma handler NBT from the server. */
-    public void syncMiasmaData(CompoundNBT nbt) {
-        LivingEntity player = Minecraft.getInstance().player;
+    /**
+     * Synchronizes the local player's Miasma handler from the server.
+     *
+     * @param changedFields a bitmask of the sync state fields sent
+     * @param syncState the sync state, of which only the fields sent are valid
+     * @param anchorTime the server game time the sync state was written at
+     */
+    public void syncMiasmaData(int changedFields, int[] syncState, long anchorTime) {
+        Optional<InfectionStage> previousStage = MiasmaHandler.getSyncedStage(this.syncState);
+        Optional<InfectionMode> previousMode = MiasmaHandler.getSyncedMode(this.syncState);
+        MiasmaHandlerSyncPacket.mergeSyncState(changedFields, syncState, this.syncState);
+
+        ClientPlayerEntity player = Minecraft.getInstance().player;
         Objects.requireNonNull(player);
         MiasmaHandlerCapability.ifPresent(player, (miasmaHandler -> {
-            miasmaHandler.deserializeNBT(nbt);
+            miasmaHandler.readSyncState(this.syncState, anchorTime);
             MiasmaLogic.updateEffect(player, miasmaHandler);
         }));
+
+        // Time the overlay message by the server's pulses, anchored as the synced infection is
+        Optional<InfectionStage> stage = MiasmaHandler.getSyncedStage(this.syncState);
+        if (stage.isPresent() && MiasmaHandler.getSyncedMode(this.syncState).orElse(null) == InfectionMode.INTENSIFYING) {
+            long anchor = Math.min(anchorTime, player.getCommandSenderWorld().getGameTime());
+            if (previousMode.orElse(null) != InfectionMode.INTENSIFYING || !previousStage.equals(stage)) {
+                // The server has just started intensifying the infection, or intensified it to a new stage
+                showOverlayMessage(player, stage.get());
+            }
+            int pulseTicks = MiasmaHandler.getSyncedPulseTicks(this.syncState);
+            nextOverlayMessageTime = anchor + (pulseTicks > 0 ? pulseTicks : MiasmaHandler.getSyncedTicksPerPulse(this.syncState));
+        } else {
+            nextOverlayMessageTime = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Re-shows the overlay message on every pulse of the synced infection while it is intensifying, as the server
+     * would have.  Called once per client tick.
+     * <p>
+     *     The cadence comes from the last sync: its anchor time, time to the next pulse and ticks per pulse.  The
+     *     client's own prediction of the infection is deliberately not consulted.
+     * </p>
+     */
+    public void tickOverlayMessage(ClientPlayerEntity player) {
+        long now = player.getCommandSenderWorld().getGameTime();
+        if (now < nextOverlayMessageTime) {
+            return;
+        }
+        Optional<InfectionStage> stage = MiasmaHandler.getSyncedStage(this.syncState);
+        int ticksPerPulse = MiasmaHandler.getSyncedTicksPerPulse(this.syncState);
+        if (!stage.isPresent() || ticksPerPulse <= 0) {
+            nextOverlayMessageTime = Long.MAX_VALUE;
+            return;
+        }
+        showOverlayMessage(player, stage.get());
+        // Skip any pulses missed while paused, rather than showing them all at once
+        nextOverlayMessageTime += ((now - nextOverlayMessageTime) / ticksPerPulse + 1) * ticksPerPulse;
+    }
+
+    private static void showOverlayMessage(ClientPlayerEntity player, InfectionStage stage) {
+        player.displayClientMessage(new TranslationTextComponent(OVERLAY_MESSAGE_KEYS.get(stage)).setStyle(OVERLAY_MESSAGE_STYLE), true);
     }
 }
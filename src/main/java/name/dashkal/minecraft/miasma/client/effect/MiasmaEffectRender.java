@@ -23,19 +23,22 @@ import name.dashkal.minecraft.miasma.api.IInfection;
 import name.dashkal.minecraft.miasma.api.InfectionMode;
 import name.dashkal.minecraft.miasma.api.InfectionStage;
 import name.dashkal.minecraft.miasma.api.MiasmaAPI;
+import name.dashkal.minecraft.miasma.client.eventhandlers.TextureEventHandlers;
+import name.dashkal.minecraft.miasma.lib.client.render.AtlasSprite;
 import name.dashkal.minecraft.miasma.lib.client.render.Color;
 import name.dashkal.minecraft.miasma.lib.client.render.Colors;
-import name.dashkal.minecraft.miasma.lib.client.render.RenderUtils;
+import name.dashkal.minecraft.miasma.lib.client.render.DurationText;
+import name.dashkal.minecraft.miasma.lib.client.render.LocalizedText;
 import name.dashkal.minecraft.miasma.common.effect.MiasmaEffect;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.DisplayEffectsScreen;
-import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.texture.AtlasTexture;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.StringUtils;
-import org.lwjgl.opengl.GL11;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -55,7 +58,42 @@ public class MiasmaEffectRender {
     private static final Color DIM_GOLD   = Colors.GOLD  .withSaturation(0.50f).withValue(0.25f);
     private static final Color DIM_YELLOW = Colors.YELLOW.withSaturation(0.50f).withValue(0.25f);
 
-    private static final ResourceLocation miasmaSprite = new ResourceLocation(MiasmaMod.MODID, "mob_effect/miasma_real");
+    private static final AtlasSprite miasmaSprite = new AtlasSprite(
+            TextureEventHandlers.effectsMap,
+            new ResourceLocation(MiasmaMod.MODID, "mob_effect/miasma_real"),
+            location -> minecraft.getMobEffectTextures().textureAtlas.getSprite(location)
+    );
+
+    // Effect name and rank, by stage
+    private static final Map<InfectionStage, LocalizedText> effectTitles = new EnumMap<>(InfectionStage.class);
+    static {
+        for (InfectionStage stage : InfectionStage.values()) {
+            effectTitles.put(stage, new LocalizedText(() -> I18n.get(MiasmaEffect.INSTANCE.getDescriptionId()) + ' ' + getRankForStage(stage)));
+        }
+    }
+
+    private static final DurationText cleansingDuration = new DurationText(4, "**:**");
+    private static final DurationText infectionDuration = new DurationText(5, "**:**");
+
+    // Packed RGB colors for each stage and mode, indexed by paletteIndex()
+    private static final int[] spriteTints = new int[InfectionStage.values().length * InfectionMode.values().length];
+    private static final int[] cleansingCountdownColors = new int[spriteTints.length];
+    private static final int[] intensifyingCountdownColors = new int[spriteTints.length];
+    static {
+        for (InfectionStage stage : InfectionStage.values()) {
+            for (InfectionMode mode : InfectionMode.values()) {
+                int i = paletteIndex(stage, mode);
+                spriteTints[i] = getSpriteTint(stage, mode).getColorRGB();
+                cleansingCountdownColors[i] = calculateCleansingCountdownColor(mode).getColorRGB();
+                intensifyingCountdownColors[i] = calculateIntensifyingCountdownColor(stage, mode).getColorRGB();
+            }
+        }
+    }
+
+    /** Refreshes the cached effect sprite.  Called whenever a texture atlas is stitched. */
+    public static void onTextureStitch(AtlasTexture atlas) {
+        miasmaSprite.onTextureStitch(atlas);
+    }
 
     /**
      * Draws the Miasma potion effect onto the player's inventory when it's active.
@@ -69,22 +107,20 @@ public class MiasmaEffectRender {
         // Only render if the player is actually infected with the Miasma
         withInfection(infection -> {
             // Render the Potion Icon
-            renderPotionSprite(mStack, x + 6, y + 7, gui.getBlitOffset(), getSpriteTint(infection));
+            int palette = paletteIndex(infection.getStage(), infection.getMode());
+            renderPotionSprite(mStack, x + 6, y + 7, gui.getBlitOffset(), spriteTints[palette], 1.0f);
 
             // Render the effect name and rank
-            String effectName = I18n.get(MiasmaEffect.INSTANCE.getDescriptionId());
-            String rank = getRankForStage(infection.getStage());
-            gui.font.drawShadow(mStack, effectName + ' ' + rank, (float) (x + 28), (float) (y + 6), Colors.WHITE.getColorRGB());
+            String effectTitle = effectTitles.get(infection.getStage()).get();
+            gui.font.drawShadow(mStack, effectTitle, (float) (x + 28), (float) (y + 6), Colors.WHITE.getColorRGB());
 
             // Render the cleansing duration
-            String cleansingDuration = formatDuration(infection.getGameTicksToCleanseStage(), 4);
-            Color cleansingDurationColor = calculateCleansingCountdownColor(infection);
-            gui.font.drawShadow(mStack, cleansingDuration, (float) (x + 28), (float) (y + 16), cleansingDurationColor.getColorRGB());
+            String cleansingDurationText = cleansingDuration.format(infection.getGameTicksToCleanseStage());
+            gui.font.drawShadow(mStack, cleansingDurationText, (float) (x + 28), (float) (y + 16), cleansingCountdownColors[palette]);
 
             // Render the infection duration
-            String infectionDuration = formatDuration(infection.getGameTicksToIntensifyStage(), 5);
-            Color infectionDurationColor = calculateIntensifyingCountdownColor(infection);
-            gui.font.drawShadow(mStack, infectionDuration, (float) (x + 88), (float) (y + 16), infectionDurationColor.getColorRGB());
+            String infectionDurationText = infectionDuration.format(infection.getGameTicksToIntensifyStage());
+            gui.font.drawShadow(mStack, infectionDurationText, (float) (x + 88), (float) (y + 16), intensifyingCountdownColors[palette]);
         });
     }
 
@@ -100,16 +136,18 @@ public class MiasmaEffectRender {
     public static void renderHUDEffect(AbstractGui gui, MatrixStack mStack, int x, int y, float alpha) {
         // Only render if the player is actually infected with the Miasma
         withInfection(infection ->
-            renderPotionSprite(mStack, x + 3, y + 3, gui.getBlitOffset(), getSpriteTint(infection).withAlpha(alpha))
+            renderPotionSprite(mStack, x + 3, y + 3, gui.getBlitOffset(), spriteTints[paletteIndex(infection.getStage(), infection.getMode())], alpha)
         );
     }
 
     /** Renders the actual effect sprite. */
-    private static void renderPotionSprite(MatrixStack mStack, int x, int y, int blitOffset, Color color) {
-        RenderUtils.setGLColor4(color);
-        TextureAtlasSprite tx = minecraft.getMobEffectTextures().textureAtlas.getSprite(miasmaSprite);
-        RenderUtils.drawAtlasSprite(tx, mStack, x, y, blitOffset, 18, 18);
-        RenderUtils.resetGLColor();
+    private static void renderPotionSprite(MatrixStack mStack, int x, int y, int blitOffset, int tintRGB, float alpha) {
+        miasmaSprite.draw(mStack, x, y, blitOffset, 18, 18, tintRGB, alpha);
+    }
+
+    /** Returns the index into the color palettes for the given infection stage and mode. */
+    private static int paletteIndex(InfectionStage stage, InfectionMode mode) {
+        return mode.ordinal() * InfectionStage.values().length + stage.ordinal();
     }
 
     /** Returns the effect rank identifier (I, II, etc), given an infection stage. */
@@ -122,14 +160,14 @@ public class MiasmaEffectRender {
         }
     }
 
-    /** Chooses a tinting color for the effect icon, given an active infection. */
-    private static Color getSpriteTint(IInfection infection) {
-        switch (infection.getMode()) {
+    /** Chooses a tinting color for the effect icon, given an infection's stage and mode. */
+    private static Color getSpriteTint(InfectionStage stage, InfectionMode mode) {
+        switch (mode) {
             case CLEANSING:
                 return Colors.AQUA;
             case PAUSED:
             case INTENSIFYING:
-                switch(infection.getStage()) {
+                switch(stage) {
                     case KILLING:
                         return Colors.RED;
                     case HARMING:
@@ -141,25 +179,25 @@ public class MiasmaEffectRender {
         return Colors.GREY;
     }
 
-    /** Chooses a color for the cleansing counter of an active infection. */
-    private static Color calculateCleansingCountdownColor(IInfection infection) {
-        if (infection.getMode() == InfectionMode.CLEANSING) {
+    /** Chooses a color for the cleansing counter, given an infection's mode. */
+    private static Color calculateCleansingCountdownColor(InfectionMode mode) {
+        if (mode == InfectionMode.CLEANSING) {
             return Colors.AQUA;
         } else {
             return DIM_AQUA;
         }
     }
 
-    /** Chooses a color for the intensifying counter of an active infection. */
-    private static Color calculateIntensifyingCountdownColor(IInfection infection) {
-        if (infection.getMode() == InfectionMode.INTENSIFYING) {
-            switch (infection.getStage()) {
+    /** Chooses a color for the intensifying counter, given an infection's stage and mode. */
+    private static Color calculateIntensifyingCountdownColor(InfectionStage stage, InfectionMode mode) {
+        if (mode == InfectionMode.INTENSIFYING) {
+            switch (stage) {
                 case KILLING: return Colors.RED;
                 case HARMING: return Colors.GOLD;
                 case WARNING: return Colors.YELLOW;
             }
         } else {
-            switch (infection.getStage()) {
+            switch (stage) {
                 case KILLING: return DIM_RED;
                 case HARMING: return DIM_GOLD;
                 case WARNING: return DIM_YELLOW;
@@ -168,14 +206,6 @@ public class MiasmaEffectRender {
         return Colors.GREY;
     }
 
-    /** Formats an infection countdown timer. */
-    private static String formatDuration(Optional<Integer> duration, int padSize) {
-        return duration.map(d ->
-                org.apache.commons.lang3.StringUtils.leftPad(StringUtils.formatTickDuration(d), padSize, ' ')
-        ).orElse("**:**");
-//        return duration.map(d -> Integer.toString(d)).orElse("*"); // Raw ticks.
-    }
-
     /** Helper function for obtaining the active infection of a player. */
     private static void withInfection(Consumer<IInfection> consumer) {
         Optional.ofNullable(minecraft.player)
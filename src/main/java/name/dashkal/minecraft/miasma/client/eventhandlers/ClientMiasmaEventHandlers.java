@@ -18,9 +18,14 @@
 package name.dashkal.minecraft.miasma.client.eventhandlers;
 
 import name.dashkal.minecraft.miasma.api.events.MiasmaEvent;
+import name.dashkal.minecraft.miasma.client.MiasmaClient;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
 import name.dashkal.minecraft.miasma.common.effect.MiasmaEffect;
+import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.entity.player.ClientPlayerEntity;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
 
 import java.util.Optional;
 
@@ -31,12 +36,23 @@ public class ClientMiasmaEventHandlers {
     private static final int VISIBLE_DURATION_LIMIT = 10 * 64 * 20; // 10 minutes
 
     public static void registerListeners() {
+        MinecraftForge.EVENT_BUS.addListener(ClientMiasmaEventHandlers::onClientTickEvent);
         MinecraftForge.EVENT_BUS.addListener(ClientMiasmaEventHandlers::onMiasmaAppliedEvent);
         MinecraftForge.EVENT_BUS.addListener(ClientMiasmaEventHandlers::onMiasmaInfectionTickEvent);
         MinecraftForge.EVENT_BUS.addListener(ClientMiasmaEventHandlers::onMiasmaStageChangeEvent);
         MinecraftForge.EVENT_BUS.addListener(ClientMiasmaEventHandlers::onMiasmaStageRestartedEvent);
     }
 
+    public static void onClientTickEvent(TickEvent.ClientTickEvent event) {
+        // Only the local player is ever synchronized, so it is the only client side entity worth ticking.
+        Minecraft minecraft = Minecraft.getInstance();
+        ClientPlayerEntity player = minecraft.player;
+        if (event.phase == TickEvent.Phase.END && player != null && !minecraft.isPaused()) {
+            MiasmaHandlerCapability.ifPresent(player, miasmaHandler -> MiasmaLogic.gameTick(player, miasmaHandler));
+            MiasmaClient.INSTANCE.tickOverlayMessage(player);
+        }
+    }
+
     public static void onMiasmaAppliedEvent(MiasmaEvent.InfectionPostApplyEvent event) {
         updateEffectCounter();
     }
@@ -18,6 +18,7 @@
 package name.dashkal.minecraft.miasma.client.eventhandlers;
 
 import name.dashkal.minecraft.miasma.MiasmaMod;
+import name.dashkal.minecraft.miasma.client.effect.MiasmaEffectRender;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.client.event.TextureStitchEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
@@ -28,11 +29,12 @@ import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
  */
 public class TextureEventHandlers {
     // The resource location of the PotionSpriteUploader textureAtlas
-    private static final ResourceLocation effectsMap = new ResourceLocation("minecraft", "textures/atlas/mob_effects.png");
+    public static final ResourceLocation effectsMap = new ResourceLocation("minecraft", "textures/atlas/mob_effects.png");
 
     public static void registerListeners() {
         IEventBus eventBus = FMLJavaModLoadingContext.get().getModEventBus();
         eventBus.addListener(TextureEventHandlers::onTextureStitchPre);
+        eventBus.addListener(TextureEventHandlers::onTextureStitchPost);
     }
 
     public static void onTextureStitchPre(TextureStitchEvent.Pre event) {
@@ -42,4 +44,8 @@ public class TextureEventHandlers {
             event.addSprite(new ResourceLocation(MiasmaMod.MODID, "mob_effect/miasma_real"));
         }
     }
+
+    public static void onTextureStitchPost(TextureStitchEvent.Post event) {
+        MiasmaEffectRender.onTextureStitch(event.getMap());
+    }
 }
@@ -24,39 +24,49 @@ import name.dashkal.minecraft.miasma.lib.client.render.Color;
 import name.dashkal.minecraft.miasma.lib.client.render.Colors;
 import name.dashkal.minecraft.miasma.lib.client.render.MiasmaSprite;
 import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
+import name.dashkal.minecraft.miasma.common.logic.Infection;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.IReorderingProcessor;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.IFormattableTextComponent;
-import net.minecraft.util.text.ITextComponent;
 import org.lwjgl.opengl.GL11;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
  * GUI Overlay used to display debugging information about an active miasma infection.
+ * <p>
+ *     The report is rebuilt at most once per client tick, or when the handler is synchronized, rather than every
+ *     frame.  Its lines are kept in their laid out form along with their measured width.
+ * </p>
  */
 public class MiasmaDebugHUD extends AbstractGui {
     private static final Minecraft minecraft = Minecraft.getInstance();
     private static final Color FADED_GREY = Colors.DARK_GREY.withAlpha(0.5f);
 
+    // The cached report, and what it was built from
+    private IReorderingProcessor[] reportLines = new IReorderingProcessor[0];
+    private int reportWidth;
+    private IMiasmaHandler reportHandler = null;
+    private Infection reportInfection = null;
+    private long reportTime = Long.MIN_VALUE;
+
     public void render(MatrixStack mStack, PlayerEntity player, IMiasmaHandler miasmaHandler) {
         FontRenderer font = minecraft.font;
         //int maxW = minecraft.getWindow().getGuiScaledWidth();
         int maxH = minecraft.getWindow().getGuiScaledHeight();
 
-        List<IFormattableTextComponent> debugReport = miasmaHandler.getDebugReport();
-        int minWidth = debugReport.stream().map(font::width).max(Comparator.comparingInt(a -> a)).orElse(0);
+        updateReport(font, player, miasmaHandler);
 
         int color = Colors.WHITE.getColorRGB();
-        int lines = debugReport.size();
+        int lines = reportLines.length;
         int x = 5;
         int spacing = 10;
         int y = (maxH - (spacing * lines)) / 2;
-        int width = miasmaHandler.getInfection().isPresent() ? Math.max(104, minWidth) : 97;
+        int width = reportInfection != null ? Math.max(104, reportWidth) : 97;
         int bgColor = FADED_GREY.getColorARGB();
 
         GL11.glPushMatrix();
@@ -66,8 +76,8 @@ public class MiasmaDebugHUD extends AbstractGui {
             RenderSystem.defaultBlendFunc();
             fill(mStack, x - 2, y - 2, x + width + 4, y + (spacing * lines) + 2, bgColor);
 
-            for (ITextComponent t : debugReport) {
-                font.drawShadow(mStack, t, x, y, color);
+            for (IReorderingProcessor line : reportLines) {
+                font.drawShadow(mStack, line, x, y, color);
                 y += spacing;
             }
         } finally {
@@ -75,4 +85,30 @@ public class MiasmaDebugHUD extends AbstractGui {
             GL11.glPopMatrix();
         }
     }
+
+    /**
+     * Rebuilds the cached report if the game has ticked or the handler has changed since it was built.  Synchronizing
+     * the handler replaces its infection, so that is caught too.
+     */
+    private void updateReport(FontRenderer font, PlayerEntity player, IMiasmaHandler miasmaHandler) {
+        long gameTime = player.getCommandSenderWorld().getGameTime();
+        Infection infection = miasmaHandler.getInfection().orElse(null);
+        if (gameTime == reportTime && miasmaHandler == reportHandler && infection == reportInfection) {
+            return;
+        }
+
+        List<IFormattableTextComponent> debugReport = miasmaHandler.getDebugReport();
+        IReorderingProcessor[] lines = new IReorderingProcessor[debugReport.size()];
+        int width = 0;
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = debugReport.get(i).getVisualOrderText();
+            width = Math.max(width, font.width(lines[i]));
+        }
+
+        this.reportLines = lines;
+        this.reportWidth = width;
+        this.reportHandler = miasmaHandler;
+        this.reportInfection = infection;
+        this.reportTime = gameTime;
+    }
 }
@@ -22,18 +22,22 @@ import name.dashkal.minecraft.miasma.api.imc.MiasmaModifierLocator;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaModifierCapability;
 import name.dashkal.minecraft.miasma.common.command.MiasmaCommand;
+import name.dashkal.minecraft.miasma.common.config.CommonConfig;
 import name.dashkal.minecraft.miasma.common.effect.MiasmaEffect;
 import name.dashkal.minecraft.miasma.common.event.MiasmaEventHandlers;
 import name.dashkal.minecraft.miasma.common.imc.IMCHandler;
 import name.dashkal.minecraft.miasma.common.item.MaskItem;
+import name.dashkal.minecraft.miasma.common.logic.InfectionTargets;
 import name.dashkal.minecraft.miasma.common.network.MiasmaChannel;
 import net.minecraft.item.Item;
 import net.minecraft.potion.Effect;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.InterModComms;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.InterModProcessEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -57,11 +61,16 @@ public class CommonSetup {
         // Mod lifecycle events
         modEventBus.addListener(CommonSetup::onFMLCommonSetupEvent);
         modEventBus.addListener(CommonSetup::onInterModProcessEvent);
+        modEventBus.addListener(CommonSetup::onModConfigEvent);
+        modEventBus.addListener(CommonSetup::onModConfigReloadingEvent);
 
         // Registration events
         modEventBus.addGenericListener(Effect.class, CommonSetup::registerEffects);
         modEventBus.addGenericListener(Item.class, CommonSetup::registerItems);
 
+        // Tag reloads
+        MinecraftForge.EVENT_BUS.addListener(CommonSetup::onTagsUpdatedEvent);
+
         // Event handlers
         registerEventHandlers();
     }
@@ -94,6 +103,38 @@ public class CommonSetup {
         IMCHandler.handleIMCMessages(event.getIMCStream());
     }
 
+    /**
+     * Handle config loading
+     */
+    private static void onModConfigEvent(ModConfig.Loading event) {
+        onConfigChanged(event.getConfig());
+    }
+
+    /**
+     * Handle config reloading
+     */
+    private static void onModConfigReloadingEvent(ModConfig.Reloading event) {
+        onConfigChanged(event.getConfig());
+    }
+
+    /** Discards anything derived from the common configuration */
+    private static void onConfigChanged(ModConfig config) {
+        if (config.getSpec() == CommonConfig.INSTANCE.getConfig()) {
+            LOGGER.trace("CommonSetup.onConfigChanged()");
+            CommonConfig.INSTANCE.refreshSnapshot();
+            CommonConfig.INSTANCE.invalidateSusceptibleEntityTypes();
+            InfectionTargets.clearCache();
+        }
+    }
+
+    /**
+     * Handle tag reloading
+     */
+    private static void onTagsUpdatedEvent(TagsUpdatedEvent event) {
+        // Susceptible entity types may be given by tag
+        CommonConfig.INSTANCE.invalidateSusceptibleEntityTypes();
+    }
+
     /** Registers the Miasma effect */
     private static void registerEffects(RegistryEvent.Register<Effect> event) {
         event.getRegistry().register(MiasmaEffect.INSTANCE);
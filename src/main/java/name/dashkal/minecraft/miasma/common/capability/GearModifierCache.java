@@ -0,0 +1,80 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.capability;
+
+import name.dashkal.minecraft.miasma.api.capability.IMiasmaModifier;
+import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifiers;
+import net.minecraft.entity.LivingEntity;
+
+import java.util.List;
+
+/**
+ * Per-entity cache of the {@link IMiasmaModifier}s found by the registered modifier locators, along with their
+ * aggregated {@link MiasmaPropertyModifiers}.
+ * <p>
+ *     The cache is invalidated when the entity's equipment changes, when an API client signals that its modifiers have
+ *     changed, and when a new modifier locator is registered.  While valid, lookups do not allocate.
+ * </p>
+ * <p>
+ *     Equipment changes are only observed on the logical server, so the client always locates modifiers afresh.
+ * </p>
+ */
+public class GearModifierCache {
+    private static final IMiasmaModifier[] NO_MODIFIERS = new IMiasmaModifier[0];
+
+    private IMiasmaModifier[] modifiers = null;
+    private MiasmaPropertyModifiers totalModifiers = null;
+    private int locatorGeneration = -1;
+
+    /** Discards the cached modifiers.  They will be located again on next use. */
+    public void invalidate() {
+        modifiers = null;
+        totalModifiers = null;
+    }
+
+    /** Returns {@code true} if the cached modifiers for the given entity can be used without locating them again. */
+    public boolean isValid(LivingEntity entity) {
+        return modifiers != null
+                && locatorGeneration == MiasmaModifierCapability.getLocatorGeneration()
+                && !entity.getCommandSenderWorld().isClientSide();
+    }
+
+    /** Returns the modifiers applicable to the given entity, in locator priority order. */
+    public IMiasmaModifier[] getModifiers(LivingEntity entity) {
+        if (!isValid(entity)) {
+            List<IMiasmaModifier> located = MiasmaModifierCapability.locateModifiers(entity);
+            modifiers = located.isEmpty() ? NO_MODIFIERS : located.toArray(NO_MODIFIERS);
+            totalModifiers = null;
+            locatorGeneration = MiasmaModifierCapability.getLocatorGeneration();
+        }
+        return modifiers;
+    }
+
+    /** Returns the property modifiers of every applicable modifier, merged together. */
+    public MiasmaPropertyModifiers getTotalModifiers(LivingEntity entity) {
+        IMiasmaModifier[] current = getModifiers(entity);
+        if (totalModifiers == null) {
+            MiasmaPropertyModifiers.Builder builder = new MiasmaPropertyModifiers.Builder();
+            for (IMiasmaModifier miasmaModifier : current) {
+                builder.addAll(miasmaModifier.getPropertyModifiers());
+            }
+            totalModifiers = builder.build();
+        }
+        return totalModifiers;
+    }
+}
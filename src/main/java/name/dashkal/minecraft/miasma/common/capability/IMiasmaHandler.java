@@ -37,9 +37,9 @@ import java.util.Optional;
  */
 public interface IMiasmaHandler {
     /**
-     * Returns {@code true} if it's time to attempt an infection.
+     * Returns the game time at which the next infection attempt is due, should one be made now.
      */
-    boolean isInfectionAttemptTick();
+    long getNextInfectionAttemptTime();
 
     /**
      * Returns the state of the active infection, if present.
@@ -61,6 +61,20 @@ public interface IMiasmaHandler {
      */
     void removeInfection();
 
+    /**
+     * Returns the cache of gear modifiers applicable to the owning entity.
+     * <p>
+     *     Only call this once the entity has been exposed to the miasma, as a clean handler must allocate state to
+     *     provide the cache.
+     * </p>
+     */
+    GearModifierCache getGearModifierCache();
+
+    /**
+     * Invalidates the cache of gear modifiers, if there is one.
+     */
+    void invalidateGearModifierCache();
+
     /**
      * Builds and returns a debug report of the current state.
      */
@@ -71,6 +85,21 @@ public interface IMiasmaHandler {
      */
     void copyFrom(IMiasmaHandler other);
 
+    /**
+     * Writes the state of this miasma handler to be synchronized to the client.
+     *
+     * @param syncState an array of at least {@link MiasmaHandler#SYNC_STATE_SIZE} ints
+     */
+    void writeSyncState(int[] syncState);
+
+    /**
+     * Loads the state of this miasma handler from state written by {@link #writeSyncState(int[])}.
+     *
+     * @param syncState the sync state
+     * @param anchorTime the game time the sync state was written at
+     */
+    void readSyncState(int[] syncState, long anchorTime);
+
     /**
      * Serializes the state of this miasma handler to NBT.
      */
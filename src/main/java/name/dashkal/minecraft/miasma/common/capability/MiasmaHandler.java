@@ -25,56 +25,97 @@ import name.dashkal.minecraft.miasma.common.logic.Infection;
 import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
 import name.dashkal.minecraft.miasma.lib.VersionedNBT;
 import net.minecraft.nbt.CompoundNBT;
-import net.minecraft.nbt.INBT;
 import net.minecraft.util.text.IFormattableTextComponent;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.INBTSerializable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 /**
  * Implementation of the {@link IMiasmaHandler} capability interface.
  * <p>
  *     Holds onto the status of the miasma for a single entity.
  * </p>
+ * <p>
+ *     Most susceptible entities are never infected, so a handler starts out sharing the immutable {@link State#CLEAN}
+ *     state.  Per-entity state is only allocated once the entity is actually exposed to the miasma, and is dropped
+ *     again once it has been cleansed.  Clean handlers serialize to an empty tag.
+ * </p>
  */
 public class MiasmaHandler implements IMiasmaHandler, INBTSerializable<CompoundNBT> {
-    private Infection infection = null;
+    // Game ticks between attempts to infect an uninfected entity
+    private static final int INFECTION_ATTEMPT_INTERVAL = 10;
+
+    // Game clock used to drive infections
+    private final LongSupplier clock;
+
+    private State state = State.CLEAN;
 
-    // Game tick counter used to space out miasma infection actions
-    private int infectionAttemptTicks = 0;
+    /**
+     * Creates a new miasma handler.
+     *
+     * @param clock a supplier of the current game time of the owning entity
+     */
+    public MiasmaHandler(LongSupplier clock) {
+        this.clock = clock;
+    }
 
     /**
-     * Returns the number of ticks since the last reset.
+     * Creates a new miasma handler that is not attached to an entity.  Infections on it will not progress.
      */
+    public MiasmaHandler() {
+        this(() -> 0L);
+    }
+
     @Override
-    public boolean isInfectionAttemptTick() {
-        // Post-increment chosen intentionally so a 0 (which we reset to on infection) means try.
-        return infectionAttemptTicks++ % 10 == 0;
+    public long getNextInfectionAttemptTime() {
+        return clock.getAsLong() + INFECTION_ATTEMPT_INTERVAL;
     }
 
     @Override
     public Optional<Infection> getInfection() {
-        return Optional.ofNullable(infection);
+        return Optional.ofNullable(state.infection);
     }
 
     @Override
     public Infection applyInfection(InfectionStage stage, InfectionMode mode, MiasmaPropertyModifiers modifiers) {
-        this.infection = new Infection(stage, mode, modifiers);
-        this.infectionAttemptTicks = 0;
-        return this.infection;
+        return materialize().infection = new Infection(stage, mode, modifiers, clock);
     }
 
     @Override
     public void removeInfection() {
-        this.infection = null;
-        this.infectionAttemptTicks = 0;
+        // Nothing worth keeping once cleansed
+        this.state = State.CLEAN;
+    }
+
+    @Override
+    public GearModifierCache getGearModifierCache() {
+        return materialize().gearModifierCache;
+    }
+
+    @Override
+    public void invalidateGearModifierCache() {
+        if (state != State.CLEAN) {
+            state.gearModifierCache.invalidate();
+        }
+    }
+
+    /** Returns the per-entity state, allocating it if this handler is still clean. */
+    private State materialize() {
+        if (state == State.CLEAN) {
+            state = new State(new GearModifierCache());
+        }
+        return state;
     }
 
     @Override
     public List<IFormattableTextComponent> getDebugReport() {
+        Infection infection = state.infection;
         if (infection == null) {
             return ImmutableList.of(debugLine("stage", "Not Infected"));
         } else {
@@ -87,7 +128,7 @@ public class MiasmaHandler implements IMiasmaHandler, INBTSerializable<CompoundN
                     debugLine("intensifyingTicks",  infection.getIntensifyingTicks()),
                     debugLine("ticksToCleanse",     infection.getGameTicksToCleanseStage().orElse(-1)),
                     debugLine("ticksToIntensify",   infection.getGameTicksToIntensifyStage().orElse(-1)),
-                    debugLine("gameTicks",          infection.getGameTicks()),
+                    debugLine("ticksToPulse",       infection.getGameTicksToPulse()),
                     debugLine("ticksPerPulse",      MiasmaLogic.getGameTicksPerPulse(infection.getStage()))
             );
         }
@@ -101,35 +142,157 @@ public class MiasmaHandler implements IMiasmaHandler, INBTSerializable<CompoundN
     @Override
     public void copyFrom(IMiasmaHandler other) {
         // Defensively copy, just in case something kept a hold of the previous one.
-        deserializeNBT(other.serializeNBT());
+        this.state = State.CLEAN;
+        other.getInfection().ifPresent(infection -> materialize().infection = infection.copy(clock));
+    }
+
+    /** The number of ints written by {@link #writeSyncState(int[])}: an infected flag followed by the infection. */
+    public static final int SYNC_STATE_SIZE = 1 + Infection.SYNC_FIELD_COUNT;
+
+    @Override
+    public void writeSyncState(int[] syncState) {
+        Infection infection = this.state.infection;
+        if (infection == null) {
+            Arrays.fill(syncState, 0, SYNC_STATE_SIZE, 0);
+        } else {
+            syncState[0] = 1;
+            infection.writeSyncState(syncState, 1);
+        }
+    }
+
+    @Override
+    public void readSyncState(int[] syncState, long anchorTime) {
+        this.state = State.CLEAN;
+        if (syncState[0] != 0) {
+            materialize().infection = new Infection(syncState, 1, anchorTime, clock);
+        }
+    }
+
+    /** Returns the infection stage held in a sync state, or {@link Optional#empty()} if it holds no infection. */
+    public static Optional<InfectionStage> getSyncedStage(int[] syncState) {
+        return syncState[0] != 0 ? Optional.of(Infection.getSyncedStage(syncState, 1)) : Optional.empty();
+    }
+
+    /** Returns the infection mode held in a sync state, or {@link Optional#empty()} if it holds no infection. */
+    public static Optional<InfectionMode> getSyncedMode(int[] syncState) {
+        return syncState[0] != 0 ? Optional.of(Infection.getSyncedMode(syncState, 1)) : Optional.empty();
+    }
+
+    /** Returns the game ticks per pulse held in a sync state, or {@code 0} if it holds no infection. */
+    public static int getSyncedTicksPerPulse(int[] syncState) {
+        return syncState[0] != 0 ? Infection.getSyncedTicksPerPulse(syncState, 1) : 0;
+    }
+
+    /**
+     * Returns the game ticks from when a sync state was written until the next pulse, or {@code 0} if it holds no
+     * infection.
+     */
+    public static int getSyncedPulseTicks(int[] syncState) {
+        return syncState[0] != 0 ? Infection.getSyncedPulseTicks(syncState, 1) : 0;
+    }
+
+    /**
+     * Checks whether a handler's sync state has drifted too far from what a client would predict from state sent
+     * earlier.
+     *
+     * @see Infection#isSyncStateDrifted(int[], int[], int, long, int)
+     */
+    public static boolean isSyncStateDrifted(int[] sent, int[] current, long elapsed, int maxDrift) {
+        if (sent[0] != current[0]) {
+            return true;
+        }
+        return current[0] != 0 && Infection.isSyncStateDrifted(sent, current, 1, elapsed, maxDrift);
     }
 
     // Compound tag keys when (de)serializing NBT
-    private static final int CURRENT_VERSION = 1; // Increment if changing the serialization format
+    private static final int CURRENT_VERSION = 2; // Increment if changing the serialization format, and add a migration
     private static final String KEY_INFECTION = "infection";
 
+    /*
+     * Version 2 stores the infection as a packed int array (see Infection#pack()).  Version 1 stored it as a nested,
+     * separately versioned compound with a named tag per field.
+     */
     @Override
     public CompoundNBT serializeNBT() {
-        return VersionedNBT.serialize(CURRENT_VERSION, nbt -> {
-            if (infection != null) {
-                nbt.put(KEY_INFECTION, infection.serializeNBT());
-            }
-        });
+        Infection infection = state.infection;
+        if (infection == null) {
+            // Forge requires a tag from every serializable capability, so this is as close to nothing as we can get
+            return new CompoundNBT();
+        }
+        return VersionedNBT.serialize(CURRENT_VERSION, nbt ->
+            nbt.putIntArray(KEY_INFECTION, infection.pack())
+        );
     }
 
     @Override
     public void deserializeNBT(CompoundNBT nbt) {
-        VersionedNBT.deserialize(nbt, (v -> v == CURRENT_VERSION), (v, tag) -> {
-            this.infection = null;
-            if (tag.contains(KEY_INFECTION)) {
+        VersionedNBT.deserialize(nbt, CURRENT_VERSION, MiasmaHandler::migrate, tag -> {
+            this.state = State.CLEAN;
+            if (tag.contains(KEY_INFECTION, Constants.NBT.TAG_INT_ARRAY)) {
                 // Infected
-                INBT infectionNBT = tag.get(KEY_INFECTION);
-                if (infectionNBT instanceof CompoundNBT) {
-                    this.infection = new Infection((CompoundNBT) infectionNBT);
-                }
+                materialize().infection = new Infection(tag.getIntArray(KEY_INFECTION), clock);
             }
         }, () ->
-            this.infection = null
+            this.state = State.CLEAN
         );
     }
+
+    // Tag keys of the version 1 infection compound
+    private static final String V1_KEY_STAGE = "stage";
+    private static final String V1_KEY_MODE = "mode";
+    private static final String V1_KEY_CLEANSING_RATIO = "cRatio";
+    private static final String V1_KEY_INTENSIFYING_RATIO = "iRatio";
+    private static final String V1_KEY_TARGET_TICKS = "targetTicks";
+    private static final String V1_KEY_TICKS_PER_PULSE = "ticksPerPulse";
+    private static final String V1_KEY_CLEANSING_TICKS = "cTicks";
+    private static final String V1_KEY_INTENSIFYING_TICKS = "iTicks";
+    private static final String V1_KEY_PULSE_TICKS = "pTicks"; // Infection version 2: game ticks until the next pulse
+    private static final String V1_KEY_GAME_TICKS = "gTicks";  // Infection version 1: game ticks since the last pulse
+
+    /** Upgrades a serialized handler by one version. */
+    private static CompoundNBT migrate(int fromVersion, CompoundNBT tag) {
+        switch (fromVersion) {
+            case 1:
+                CompoundNBT migrated = new CompoundNBT();
+                if (tag.contains(KEY_INFECTION, Constants.NBT.TAG_COMPOUND)) {
+                    CompoundNBT infection = tag.getCompound(KEY_INFECTION);
+                    int infectionVersion = infection.getInt(VersionedNBT.KEY_VERSION);
+                    if (infectionVersion != 1 && infectionVersion != 2) {
+                        // Unreadable.  Keep the entity infected, but from the start of the first stage.
+                        migrated.putIntArray(KEY_INFECTION, Infection.pack(InfectionStage.WARNING, InfectionMode.PAUSED, 0, 0, 0, 0, 0, 0, 0));
+                        return migrated;
+                    }
+                    int pulseTicks = infectionVersion == 1
+                            ? Math.max(0, infection.getInt(V1_KEY_TICKS_PER_PULSE) - infection.getInt(V1_KEY_GAME_TICKS))
+                            : infection.getInt(V1_KEY_PULSE_TICKS);
+                    migrated.putIntArray(KEY_INFECTION, Infection.pack(
+                            InfectionStage.fromName(infection.getString(V1_KEY_STAGE)).orElse(InfectionStage.WARNING),
+                            InfectionMode.fromName(infection.getString(V1_KEY_MODE)).orElse(InfectionMode.PAUSED),
+                            infection.getInt(V1_KEY_CLEANSING_RATIO),
+                            infection.getInt(V1_KEY_INTENSIFYING_RATIO),
+                            infection.getInt(V1_KEY_TARGET_TICKS),
+                            infection.getInt(V1_KEY_TICKS_PER_PULSE),
+                            infection.getInt(V1_KEY_CLEANSING_TICKS),
+                            infection.getInt(V1_KEY_INTENSIFYING_TICKS),
+                            pulseTicks
+                    ));
+                }
+                return migrated;
+            default:
+                return null;
+        }
+    }
+
+    /** Per-entity miasma state. */
+    private static final class State {
+        /** Shared by every clean handler.  Never modified. */
+        private static final State CLEAN = new State(null);
+
+        private final GearModifierCache gearModifierCache;
+        private Infection infection = null;
+
+        private State(GearModifierCache gearModifierCache) {
+            this.gearModifierCache = gearModifierCache;
+        }
+    }
 }
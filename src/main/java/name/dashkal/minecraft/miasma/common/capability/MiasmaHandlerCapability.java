@@ -86,11 +86,14 @@ public class MiasmaHandlerCapability {
 
     /** Attaches the capability to any living entity specified in the configuration. */
     private static void attach(AttachCapabilitiesEvent<Entity> ev) {
-        if (ev.getObject() instanceof LivingEntity
-                && CommonConfig.INSTANCE.getSusceptibleEntityTypes().contains(ev.getObject().getType().getRegistryName())) {
-            // It's safe to invoke the default instance as attach isn't called until entity creation, long after registration.
-            //noinspection NullableProblems
-            SerializableUnsidedCapabilityProvider provider = new SerializableUnsidedCapabilityProvider(() -> CAPABILITY, CAPABILITY::getDefaultInstance);
+        // Only living entity types can be configured as susceptible
+        if (CommonConfig.INSTANCE.isSusceptible(ev.getObject().getType()) && ev.getObject() instanceof LivingEntity) {
+            // Infections are driven by the game clock of whichever world the entity currently resides in.
+            Entity entity = ev.getObject();
+            SerializableUnsidedCapabilityProvider provider = new SerializableUnsidedCapabilityProvider(
+                    () -> CAPABILITY,
+                    () -> new MiasmaHandler(() -> entity.getCommandSenderWorld().getGameTime())
+            );
             ev.addCapability(RESOURCE_LOCATION, provider);
             ev.addListener(provider::invalidate);
         }
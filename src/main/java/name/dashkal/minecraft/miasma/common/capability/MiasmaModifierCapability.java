@@ -32,14 +32,12 @@ import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityInject;
 import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
-import net.minecraftforge.common.util.NonNullConsumer;
 import net.minecraftforge.common.util.NonNullSupplier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Capability implementation for {@link IMiasmaModifier}.
@@ -50,7 +48,9 @@ public class MiasmaModifierCapability {
     public static final Capability<IMiasmaModifier> CAPABILITY = injectNull();
 
     private static final Map<Integer, List<MiasmaModifierLocator>> modifierLocatorMap = new TreeMap<>();
-    private static List<Function<LivingEntity, List<IMiasmaModifier>>> modifierLocators = new LinkedList<>();
+    private static MiasmaModifierLocator.VisitorFunction[] modifierLocators = new MiasmaModifierLocator.VisitorFunction[0];
+    // Incremented whenever the locators change, invalidating every GearModifierCache
+    private static int locatorGeneration = 0;
 
     /** Called to register the {@link IMiasmaModifier} capability. */
     public static void register() {
@@ -59,22 +59,65 @@ public class MiasmaModifierCapability {
 
     /**
      * Checks the given {@link ItemStack} to see if it has the {@link IMiasmaModifier} capability attached. If so, the
-     * capability instance is passed to the given {@link NonNullConsumer}.
+     * capability instance is passed to the given {@link MiasmaModifierLocator.Visitor}.
+     *
+     * @return {@code false} if the visitor asked to stop, otherwise {@code true}
      */
-    private static void whenPresent(ItemStack itemStack, NonNullConsumer<IMiasmaModifier> consumer) {
-        itemStack.getCapability(CAPABILITY).ifPresent(consumer);
+    private static boolean visitIfPresent(ItemStack itemStack, MiasmaModifierLocator.Visitor visitor) {
+        IMiasmaModifier miasmaModifier = itemStack.getCapability(CAPABILITY).orElse(null);
+        return miasmaModifier == null || visitor.visit(miasmaModifier);
     }
 
     /**
-     * Returns all applicable {@link IMiasmaModifier}s for the given entity.
+     * Runs every modifier locator to find all applicable {@link IMiasmaModifier}s for the given entity, bypassing the
+     * cache.
      *
      * @param entity the entity to obtain the infection modifiers for
      * @return a list all applicable modifiers for the entity
      */
-    public static List<IMiasmaModifier> getModifiers(LivingEntity entity) {
-        return modifierLocators.stream()
-                .flatMap(f -> f.apply(entity).stream())
-                .collect(Collectors.toList());
+    public static List<IMiasmaModifier> locateModifiers(LivingEntity entity) {
+        List<IMiasmaModifier> modifiers = new ArrayList<>();
+        visitModifiers(entity, modifiers::add);
+        return modifiers;
+    }
+
+    /**
+     * Runs every modifier locator in priority order, passing each modifier found to the visitor, bypassing the cache.
+     *
+     * @param entity the entity to visit the infection modifiers of
+     * @param visitor the visitor, which may return {@code false} to stop the search
+     * @return {@code false} if the visitor stopped the search, otherwise {@code true}
+     */
+    public static boolean visitModifiers(LivingEntity entity, MiasmaModifierLocator.Visitor visitor) {
+        for (MiasmaModifierLocator.VisitorFunction locator : modifierLocators) {
+            if (!locator.visitModifiers(entity, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns all applicable {@link IMiasmaModifier}s for the given entity, from the handler's cache.
+     *
+     * @param entity the entity to obtain the infection modifiers for
+     * @param miasmaHandler the miasma handler of the entity
+     * @return all applicable modifiers for the entity, which must not be modified
+     */
+    public static IMiasmaModifier[] getModifiers(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        return miasmaHandler.getGearModifierCache().getModifiers(entity);
+    }
+
+    /**
+     * Signals that the modifiers applicable to the given entity may have changed, outside of an equipment change.
+     */
+    public static void invalidateModifiers(LivingEntity entity) {
+        MiasmaHandlerCapability.ifPresent(entity, IMiasmaHandler::invalidateGearModifierCache);
+    }
+
+    /** Returns the current generation of the modifier locators.  Changes whenever a locator is added. */
+    public static int getLocatorGeneration() {
+        return locatorGeneration;
     }
 
     /**
@@ -85,30 +128,30 @@ public class MiasmaModifierCapability {
      * </p>
      *
      * @param entity the entity to check the modifiers of
+     * @param miasmaHandler the miasma handler of the entity
      * @param function the function to run
      * @return {@code true} if every function call returned {@code true}
      * @see name.dashkal.minecraft.miasma.api.events.MiasmaEvent
      */
-    public static boolean checkModifiersUntilFalse(LivingEntity entity, Function<IMiasmaModifier, Boolean> function) {
-        for (IMiasmaModifier modifier : getModifiers(entity)) {
-            if (!function.apply(modifier)) {
-                return false;
+    public static boolean checkModifiersUntilFalse(LivingEntity entity, IMiasmaHandler miasmaHandler, Function<IMiasmaModifier, Boolean> function) {
+        GearModifierCache cache = miasmaHandler.getGearModifierCache();
+        if (cache.isValid(entity)) {
+            for (IMiasmaModifier modifier : cache.getModifiers(entity)) {
+                if (!function.apply(modifier)) {
+                    return false;
+                }
             }
+            return true;
         }
-        return true;
+        // Not cached, so only locate as many modifiers as we need
+        return visitModifiers(entity, function::apply);
     }
 
     /**
      * Returns a {@link MiasmaPropertyModifiers} that aggregates any modifiers for an entity.
      */
-    public static MiasmaPropertyModifiers getTotalGearModifiers(LivingEntity entity) {
-        MiasmaPropertyModifiers.Builder builder = new MiasmaPropertyModifiers.Builder();
-
-        for (IMiasmaModifier miasmaModifier : getModifiers(entity)) {
-            builder.addAll(miasmaModifier.getPropertyModifiers());
-        }
-
-        return builder.build();
+    public static MiasmaPropertyModifiers getTotalGearModifiers(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        return miasmaHandler.getGearModifierCache().getTotalModifiers(entity);
     }
 
     /**
@@ -141,8 +184,9 @@ public class MiasmaModifierCapability {
         });
         modifierLocators = modifierLocatorMap.values().stream()
                 .flatMap(Collection::stream)
-                .map(MiasmaModifierLocator::getLocatorFunction)
-                .collect(Collectors.toList());
+                .map(MiasmaModifierLocator::getVisitorFunction)
+                .toArray(MiasmaModifierLocator.VisitorFunction[]::new);
+        locatorGeneration++;
     }
 
     /**
@@ -160,24 +204,21 @@ public class MiasmaModifierCapability {
         addModifierLocator(new MiasmaModifierLocator(
                 new ResourceLocation(MiasmaMod.MODID, "mod_held"),
                 0,
-                entity -> {
-                    List<IMiasmaModifier> modifiers = new LinkedList<>();
-                    whenPresent(entity.getMainHandItem(), modifiers::add);
-                    whenPresent(entity.getOffhandItem(), modifiers::add);
-                    return modifiers;
-                }
+                (entity, visitor) ->
+                    visitIfPresent(entity.getMainHandItem(), visitor) && visitIfPresent(entity.getOffhandItem(), visitor)
         ));
 
         // Armor
         addModifierLocator(new MiasmaModifierLocator(
                 new ResourceLocation(MiasmaMod.MODID, "mod_armor"),
                 100,
-                entity -> {
-                    List<IMiasmaModifier> modifiers = new LinkedList<>();
+                (entity, visitor) -> {
                     for (ItemStack is : entity.getArmorSlots()) {
-                        whenPresent(is, modifiers::add);
+                        if (!visitIfPresent(is, visitor)) {
+                            return false;
+                        }
                     }
-                    return modifiers;
+                    return true;
                 }
         ));
     }
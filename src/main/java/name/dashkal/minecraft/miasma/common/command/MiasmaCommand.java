@@ -25,6 +25,8 @@ import name.dashkal.minecraft.miasma.api.InfectionStage;
 import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
 import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
+import name.dashkal.minecraft.miasma.common.logic.MiasmaWorld;
+import name.dashkal.minecraft.miasma.common.logic.SkyExposureCache;
 import name.dashkal.minecraft.miasma.common.network.MiasmaChannel;
 import name.dashkal.minecraft.miasma.common.network.MiasmaDebugOverlayPacket;
 import net.minecraft.command.CommandSource;
@@ -44,6 +46,8 @@ import net.minecraft.util.text.TranslationTextComponent;
  *         <dt><code>debug show</code></dt><dd>shows the debug overlay</dd>
  *         <dt><code>debug hide</code></dt><dd>hides the debug overlay</dd>
  *         <dt><code>debug dumpEntity [entity]</code></dt><dd>displays debugging information for the target entity</dd>
+ *         <dt><code>debug skyCache</code></dt><dd>displays sky exposure cache statistics for the current world</dd>
+ *         <dt><code>debug sync</code></dt><dd>displays client synchronization statistics</dd>
  *         <dt><code>infect [entity]</code></dt><dd>infects the target entity with the miasma</dd>
  *         <dt><code>cleanse [entity]</code></dt><dd>cleanses the target entity of the miasma</dd>
  *     </dl>
@@ -65,7 +69,9 @@ public class MiasmaCommand {
             .then(Commands.literal("hide").executes(c -> debugOverlay(c.getSource(), MiasmaDebugOverlayPacket.Command.HIDE)))
             .then(Commands.literal("dumpEntity")
                     .then(Commands.argument("entity", EntityArgument.entity())
-                            .executes(c -> miasmaCommand(MiasmaCommand::debugDump, c.getSource(), EntityArgument.getEntity(c, "entity"), Unit.INSTANCE))));
+                            .executes(c -> miasmaCommand(MiasmaCommand::debugDump, c.getSource(), EntityArgument.getEntity(c, "entity"), Unit.INSTANCE))))
+            .then(Commands.literal("skyCache").executes(c -> debugSkyCache(c.getSource())))
+            .then(Commands.literal("sync").executes(c -> debugSync(c.getSource())));
 
     public static final ArgumentBuilder<CommandSource, LiteralArgumentBuilder<CommandSource>> infectCommand = Commands.literal("infect")
             .executes(c -> miasmaCommand(MiasmaCommand::infect, c.getSource(), c.getSource().getEntity(), InfectionStage.HARMING))
@@ -82,6 +88,35 @@ public class MiasmaCommand {
         return 1;
     }
 
+    private static int debugSkyCache(CommandSource source) {
+        // Don't create miasma state for a world just to report on it.  Without any, the cache is empty.
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(source.getLevel());
+        if (miasmaWorld == null) {
+            source.sendSuccess(new TranslationTextComponent("commands.miasma.debug.sky_cache", 0, 0L, 0L, 0L), false);
+            return 1;
+        }
+        SkyExposureCache cache = miasmaWorld.getSkyExposure();
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        source.sendSuccess(new TranslationTextComponent(
+                "commands.miasma.debug.sky_cache",
+                cache.getCachedChunks(),
+                hits,
+                cache.getMisses(),
+                lookups == 0 ? 0 : hits * 100 / lookups
+        ), false);
+        return 1;
+    }
+
+    private static int debugSync(CommandSource source) {
+        source.sendSuccess(new TranslationTextComponent(
+                "commands.miasma.debug.sync",
+                MiasmaChannel.getSentSyncs(),
+                MiasmaChannel.getCoalescedSyncs()
+        ), false);
+        return 1;
+    }
+
     private static boolean debugDump(CommandSource source, LivingEntity entity, IMiasmaHandler miasmaHandler, Unit unit) {
         miasmaHandler.getDebugReport().forEach(t -> source.sendSuccess(t, false));
         return true;
@@ -18,21 +18,34 @@
 package name.dashkal.minecraft.miasma.common.config;
 
 import com.google.common.collect.ImmutableList;
+import name.dashkal.minecraft.miasma.MiasmaMod;
 import name.dashkal.minecraft.miasma.api.InfectionStage;
 import net.minecraft.entity.EntityType;
+import net.minecraft.tags.EntityTypeTags;
+import net.minecraft.tags.ITag;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.ResourceLocationException;
 import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class CommonConfig {
+    private static final Logger LOGGER = LogManager.getLogger(MiasmaMod.MODID);
+
     public static final CommonConfig INSTANCE = new CommonConfig();
 
     private final ForgeConfigSpec config;
 
-    private final Set<ResourceLocation> susceptibleEntityTypes;
+    private final ForgeConfigSpec.ConfigValue<List<? extends String>> SUSCEPTIBLE_ENTITY_TYPES;
+
+    // Resolved from SUSCEPTIBLE_ENTITY_TYPES on first use, and discarded whenever the config or tags are reloaded
+    private volatile Set<EntityType<?>> susceptibleEntityTypes = null;
+
+    // Swapped out whole whenever the config is loaded or reloaded
+    private volatile MiasmaConfigSnapshot snapshot = null;
 
     private final ForgeConfigSpec.IntValue STAGE_WARN_DURATION;
     private final ForgeConfigSpec.IntValue STAGE_WARN_CLEANSE_TIME;
@@ -54,8 +67,9 @@ public class CommonConfig {
 
         // General
         builder.comment("General Settings").push("general");
-        builder.comment("A list of entity types that will be marked as susceptible to the miasma.");
-        ForgeConfigSpec.ConfigValue<List<? extends String>> SUSCEPTIBLE_ENTITY_TYPES = builder.defineList(
+        builder.comment("A list of entity types that will be marked as susceptible to the miasma.",
+                "Entity type tags may be given with a leading '#', e.g. \"#minecraft:raiders\".");
+        SUSCEPTIBLE_ENTITY_TYPES = builder.defineList(
                 "susceptibleEntities",
                 ImmutableList.of(
                     rn(EntityType.PLAYER)
@@ -97,13 +111,6 @@ public class CommonConfig {
 
         // Build the configuration
         config = builder.build();
-
-        // Load the susceptible entities
-        susceptibleEntityTypes = Collections.unmodifiableSet(
-                SUSCEPTIBLE_ENTITY_TYPES.get().stream()
-                        .map(ResourceLocation::tryParse)
-                        .collect(Collectors.toSet())
-        );
     }
 
     /** Returns the forge config spec for the common configuration. */
@@ -111,9 +118,67 @@ public class CommonConfig {
         return config;
     }
 
-    /** Returns a list of types of entities that should be subject to the miasma. */
-    public Set<ResourceLocation> getSusceptibleEntityTypes() {
-        return susceptibleEntityTypes;
+    /**
+     * Returns an immutable snapshot of the stage settings, taking one if none has been taken yet.
+     * <p>
+     *     Prefer this over the individual getters on hot paths.
+     * </p>
+     */
+    public MiasmaConfigSnapshot getSnapshot() {
+        MiasmaConfigSnapshot current = snapshot;
+        if (current == null) {
+            current = MiasmaConfigSnapshot.of(this);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /** Takes a new snapshot of the stage settings.  Called when the config is loaded or reloaded. */
+    public void refreshSnapshot() {
+        snapshot = MiasmaConfigSnapshot.of(this);
+    }
+
+    /** Returns {@code true} if entities of the given type should be subject to the miasma. */
+    public boolean isSusceptible(EntityType<?> entityType) {
+        Set<EntityType<?>> current = susceptibleEntityTypes;
+        if (current == null) {
+            current = resolveSusceptibleEntityTypes();
+            susceptibleEntityTypes = current;
+        }
+        return current.contains(entityType);
+    }
+
+    /**
+     * Discards the resolved set of susceptible entity types.  Called when the config or tags are reloaded.
+     */
+    public void invalidateSusceptibleEntityTypes() {
+        susceptibleEntityTypes = null;
+    }
+
+    /** Resolves the configured entity type names and tags into an identity set of entity types. */
+    private Set<EntityType<?>> resolveSusceptibleEntityTypes() {
+        Set<EntityType<?>> entityTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String name : SUSCEPTIBLE_ENTITY_TYPES.get()) {
+            if (name.startsWith("#")) {
+                ResourceLocation tagName = ResourceLocation.tryParse(name.substring(1));
+                ITag<EntityType<?>> tag = tagName == null ? null : EntityTypeTags.getAllTags().getTag(tagName);
+                if (tag != null) {
+                    entityTypes.addAll(tag.getValues());
+                } else {
+                    // Tags may simply not be loaded yet.  We'll try again when they are.
+                    LOGGER.debug("Unknown entity type tag in susceptibleEntities: {}", name);
+                }
+            } else {
+                ResourceLocation typeName = ResourceLocation.tryParse(name);
+                // The entity registry returns its default (pig) for unknown names, so check first
+                if (typeName != null && ForgeRegistries.ENTITIES.containsKey(typeName)) {
+                    entityTypes.add(ForgeRegistries.ENTITIES.getValue(typeName));
+                } else {
+                    LOGGER.warn("Unknown entity type in susceptibleEntities: {}", name);
+                }
+            }
+        }
+        return entityTypes;
     }
 
     /**
@@ -172,8 +237,9 @@ public class CommonConfig {
 
     private boolean resourceLocationPredicate(Object o) {
         if (o instanceof String) {
+            String s = (String) o;
             try {
-                new ResourceLocation((String) o);
+                new ResourceLocation(s.startsWith("#") ? s.substring(1) : s);
                 return true;
             } catch (ResourceLocationException ex) {
                 return false;
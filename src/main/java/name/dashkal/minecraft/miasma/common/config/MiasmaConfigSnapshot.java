@@ -0,0 +1,76 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.config;
+
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+
+/**
+ * An immutable copy of the stage settings of the {@link CommonConfig}, converted to game ticks.
+ * <p>
+ *     Reading a {@link net.minecraftforge.common.ForgeConfigSpec} value is comparatively expensive, so the stage
+ *     settings are copied out once whenever the config is loaded or reloaded.  Tables are indexed by
+ *     {@link InfectionStage#ordinal()}.
+ * </p>
+ */
+public final class MiasmaConfigSnapshot {
+    private final int[] durationTicks;
+    private final int[] cleanseTicks;
+    private final int[] tickDamage;
+    private final boolean killStageKillsOnExpiry;
+
+    private MiasmaConfigSnapshot(int[] durationTicks, int[] cleanseTicks, int[] tickDamage, boolean killStageKillsOnExpiry) {
+        this.durationTicks = durationTicks;
+        this.cleanseTicks = cleanseTicks;
+        this.tickDamage = tickDamage;
+        this.killStageKillsOnExpiry = killStageKillsOnExpiry;
+    }
+
+    /** Copies the current values out of the given config. */
+    static MiasmaConfigSnapshot of(CommonConfig config) {
+        InfectionStage[] stages = InfectionStage.values();
+        int[] durationTicks = new int[stages.length];
+        int[] cleanseTicks = new int[stages.length];
+        int[] tickDamage = new int[stages.length];
+        for (InfectionStage stage : stages) {
+            durationTicks[stage.ordinal()] = config.getMiasmaDurationSeconds(stage) * 20;
+            cleanseTicks[stage.ordinal()] = config.getMiasmaCleanseTimeSeconds(stage) * 20;
+            tickDamage[stage.ordinal()] = config.getMiasmaTickDamage(stage);
+        }
+        return new MiasmaConfigSnapshot(durationTicks, cleanseTicks, tickDamage, config.killStageKillsOnExpiry());
+    }
+
+    /** Returns the duration of the given stage, in game ticks. */
+    public int getDurationTicks(InfectionStage stage) {
+        return durationTicks[stage.ordinal()];
+    }
+
+    /** Returns the time it takes to cleanse the given stage, in game ticks. */
+    public int getCleanseTicks(InfectionStage stage) {
+        return cleanseTicks[stage.ordinal()];
+    }
+
+    /** Returns the damage dealt by each pulse of the given stage. */
+    public int getTickDamage(InfectionStage stage) {
+        return tickDamage[stage.ordinal()];
+    }
+
+    /** Returns {@code true} if the killing stage outright kills the entity when its duration has passed. */
+    public boolean killStageKillsOnExpiry() {
+        return killStageKillsOnExpiry;
+    }
+}
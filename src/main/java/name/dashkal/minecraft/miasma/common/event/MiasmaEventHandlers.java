@@ -20,15 +20,29 @@ package name.dashkal.minecraft.miasma.common.event;
 import name.dashkal.minecraft.miasma.api.capability.IMiasmaModifier;
 import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
 import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaModifierCapability;
 import name.dashkal.minecraft.miasma.common.logic.MiasmaLogic;
+import name.dashkal.minecraft.miasma.common.logic.MiasmaWorld;
 import name.dashkal.minecraft.miasma.common.network.MiasmaChannel;
 import name.dashkal.minecraft.miasma.common.network.MiasmaHandlerSyncPacket;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.entity.living.LivingEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
 import net.minecraftforge.event.entity.living.PotionEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.fml.LogicalSide;
 
 /**
  * Event handlers for interacting with the Miasma infection.
@@ -37,25 +51,119 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
  */
 public class MiasmaEventHandlers {
     public static void registerHandlers() {
-        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onLivingUpdateEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onWorldTickEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onServerTickEvent);
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.LOWEST, MiasmaEventHandlers::onEntityJoinWorldEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onEntityLeaveWorldEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onWorldUnloadEvent);
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.LOWEST, MiasmaEventHandlers::onBlockBreakEvent);
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.LOWEST, MiasmaEventHandlers::onBlockPlaceEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onNeighborNotifyEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onChunkLoadEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onChunkUnloadEvent);
         MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPotionRemoveEvent);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onLivingEquipmentChangeEvent);
         MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPlayerLoggedIn);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPlayerLoggedOut);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPlayerRespawn);
+        MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPlayerChangedDimension);
         MinecraftForge.EVENT_BUS.addListener(MiasmaEventHandlers::onPlayerClone);
     }
 
-    public static void onLivingUpdateEvent(LivingEvent.LivingUpdateEvent event) {
-        // Be very careful about CPU in this event! It's fired for every living entity every tick.
-        LivingEntity entity = event.getEntityLiving();
-        MiasmaHandlerCapability.ifPresent(entity, handler ->
-            MiasmaLogic.gameTick(entity, handler)
-        );
+    public static void onWorldTickEvent(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.side == LogicalSide.SERVER && event.world instanceof ServerWorld) {
+            MiasmaWorld.get((ServerWorld) event.world).tick();
+        }
+    }
+
+    public static void onServerTickEvent(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            MiasmaChannel.flushHandlerSyncs();
+        }
+    }
+
+    public static void onEntityJoinWorldEvent(EntityJoinWorldEvent event) {
+        // Lowest priority so we only track entities that actually made it into the world.
+        if (event.getWorld() instanceof ServerWorld && event.getEntity() instanceof LivingEntity) {
+            LivingEntity entity = (LivingEntity) event.getEntity();
+            MiasmaHandlerCapability.ifPresent(entity, miasmaHandler ->
+                MiasmaWorld.get((ServerWorld) event.getWorld()).add(entity, miasmaHandler)
+            );
+        }
+    }
+
+    public static void onEntityLeaveWorldEvent(EntityLeaveWorldEvent event) {
+        if (event.getWorld() instanceof ServerWorld && event.getEntity() instanceof LivingEntity) {
+            MiasmaWorld.get((ServerWorld) event.getWorld()).remove((LivingEntity) event.getEntity());
+        }
+    }
+
+    public static void onWorldUnloadEvent(WorldEvent.Unload event) {
+        MiasmaWorld.unload(event.getWorld());
+    }
+
+    public static void onBlockBreakEvent(BlockEvent.BreakEvent event) {
+        invalidateSkyExposure(event.getWorld(), event.getPos());
+    }
+
+    public static void onBlockPlaceEvent(BlockEvent.EntityPlaceEvent event) {
+        invalidateSkyExposure(event.getWorld(), event.getPos());
+    }
+
+    public static void onNeighborNotifyEvent(BlockEvent.NeighborNotifyEvent event) {
+        // Fired after any block change that notifies its neighbours, catching pistons, fluids, explosions and the like
+        invalidateSkyExposure(event.getWorld(), event.getPos());
+    }
+
+    public static void onChunkLoadEvent(ChunkEvent.Load event) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(event.getWorld());
+        if (miasmaWorld != null) {
+            miasmaWorld.getSkyExposure().invalidateChunk(event.getChunk().getPos());
+        }
+    }
+
+    public static void onChunkUnloadEvent(ChunkEvent.Unload event) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(event.getWorld());
+        if (miasmaWorld != null) {
+            miasmaWorld.getSkyExposure().invalidateChunk(event.getChunk().getPos());
+        }
+    }
+
+    private static void invalidateSkyExposure(IWorld world, BlockPos pos) {
+        MiasmaWorld miasmaWorld = MiasmaWorld.getIfPresent(world);
+        if (miasmaWorld != null) {
+            miasmaWorld.getSkyExposure().invalidate(pos);
+        }
     }
 
     public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
-        PlayerEntity player = event.getPlayer();
-        MiasmaHandlerCapability.ifPresent(player, miasmaHandler ->
-                MiasmaChannel.sendToPlayerClient(event.getEntityLiving(), new MiasmaHandlerSyncPacket(miasmaHandler))
-        );
+        resyncPlayer(event.getPlayer());
+    }
+
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            MiasmaHandlerSyncPacket.resetPlayer((ServerPlayerEntity) event.getPlayer());
+        }
+    }
+
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        // The client has a new player entity, with a new handler
+        resyncPlayer(event.getPlayer());
+    }
+
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        // The client has a new player entity, with a new handler
+        resyncPlayer(event.getPlayer());
+    }
+
+    /** Sends the full state of the player's miasma handler to their client. */
+    private static void resyncPlayer(PlayerEntity player) {
+        if (player instanceof ServerPlayerEntity) {
+            MiasmaHandlerSyncPacket.resetPlayer((ServerPlayerEntity) player);
+            MiasmaHandlerCapability.ifPresent(player, miasmaHandler ->
+                    MiasmaChannel.syncHandler(player, miasmaHandler)
+            );
+        }
     }
 
     public static void onPlayerClone(PlayerEvent.Clone event) {
@@ -72,6 +180,10 @@ public class MiasmaEventHandlers {
         }
     }
 
+    public static void onLivingEquipmentChangeEvent(LivingEquipmentChangeEvent event) {
+        MiasmaModifierCapability.invalidateModifiers(event.getEntityLiving());
+    }
+
     public static void onPotionRemoveEvent(PotionEvent.PotionRemoveEvent event) {
         MiasmaLogic.onEffectRemoved(event.getEntityLiving());
     }
@@ -0,0 +1,82 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import java.util.BitSet;
+
+/**
+ * Maps the candidates of a batch back to their positions in the batch's input.
+ * <p>
+ *     Inputs are visited in order, and each is either {@linkplain #add() added} as the next candidate or
+ *     {@linkplain #skip() skipped}.  A bit set over candidates can then be turned into one over inputs.
+ * </p>
+ */
+final class BatchIndices {
+    private final int[] inputIndices;
+    private int inputs = 0;
+    private int candidates = 0;
+
+    /**
+     * Creates a new index map.
+     *
+     * @param inputs the number of inputs in the batch
+     */
+    BatchIndices(int inputs) {
+        this.inputIndices = new int[inputs];
+    }
+
+    /**
+     * Records the next input as a candidate.
+     * @return the index of the new candidate
+     */
+    int add() {
+        inputIndices[candidates] = inputs++;
+        return candidates++;
+    }
+
+    /** Records the next input as not being a candidate. */
+    void skip() {
+        inputs++;
+    }
+
+    /** Returns the number of candidates recorded so far. */
+    int size() {
+        return candidates;
+    }
+
+    /** Returns the input index of the given candidate. */
+    int getInputIndex(int candidate) {
+        if (candidate < 0 || candidate >= candidates) {
+            throw new IndexOutOfBoundsException("Index: " + candidate + ", Size: " + candidates);
+        }
+        return inputIndices[candidate];
+    }
+
+    /**
+     * Maps a bit set over candidates to one over inputs.
+     * @param candidateBits bits set by candidate index
+     * @return a new bit set, with the same bits set by input index
+     */
+    BitSet toInputBits(BitSet candidateBits) {
+        BitSet inputBits = new BitSet(inputs);
+        for (int i = candidateBits.nextSetBit(0); i >= 0; i = candidateBits.nextSetBit(i + 1)) {
+            inputBits.set(getInputIndex(i));
+        }
+        return inputBits;
+    }
+}
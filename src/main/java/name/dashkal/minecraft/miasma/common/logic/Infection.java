@@ -17,21 +17,27 @@
  */
 package name.dashkal.minecraft.miasma.common.logic;
 
-import com.google.common.math.IntMath;
 import name.dashkal.minecraft.miasma.api.IInfection;
 import name.dashkal.minecraft.miasma.api.InfectionMode;
 import name.dashkal.minecraft.miasma.api.InfectionStage;
-import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifierType;
 import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifiers;
 import name.dashkal.minecraft.miasma.common.config.CommonConfig;
-import name.dashkal.minecraft.miasma.lib.VersionedNBT;
-import net.minecraft.nbt.CompoundNBT;
-import net.minecraftforge.common.util.INBTSerializable;
-import org.apache.commons.lang3.math.Fraction;
 
 import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * State of an active miasma infection.
+ * <p>
+ *     Rather than counting ticks, the infection records the game time of its last mode change along with the progress
+ *     accumulated up to that point.  Current progress is derived on demand from the supplied game clock, so nothing
+ *     needs to be updated between pulses.
+ * </p>
+ */
+public class Infection implements IInfection {
+    // Game clock used to derive progress
+    private final LongSupplier clock;
 
-public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
     // Infection
     private InfectionStage stage;
     private InfectionMode mode;
@@ -42,12 +48,23 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
     private int targetTicks;
     private int ticksPerPulse;
 
-    // Tick tracking
+    // What the calculated fields were last calculated from
+    private InfectionStage targetsStage = null;
+    private MiasmaPropertyModifiers targetsModifiers = null;
+    private int targetsGeneration = -1;
+
+    // Tick tracking, accumulated as of modeChangeTime
     private int cleansingTicks;
     private int intensifyingTicks;
-    private int gameTicks;
+    private long modeChangeTime;
+    private long nextPulseTime;
+
+    // Views handed out since the last mutation, and the most recently created of them
+    private ViewGeneration viewGeneration = null;
+    private View lastView = null;
 
-    private Infection(InfectionStage stage, InfectionMode mode, int cleansingRatio, int intensifyingRatio, int targetTicks, int ticksPerPulse, int cleansingTicks, int intensifyingTicks, int gameTicks) {
+    private Infection(LongSupplier clock, InfectionStage stage, InfectionMode mode, int cleansingRatio, int intensifyingRatio, int targetTicks, int ticksPerPulse, int cleansingTicks, int intensifyingTicks, long modeChangeTime, long nextPulseTime) {
+        this.clock = clock;
         this.stage = stage;
         this.mode = mode;
         this.cleansingRatio = cleansingRatio;
@@ -56,39 +73,152 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
         this.ticksPerPulse = ticksPerPulse;
         this.cleansingTicks = cleansingTicks;
         this.intensifyingTicks = intensifyingTicks;
-        this.gameTicks = gameTicks;
+        this.modeChangeTime = modeChangeTime;
+        this.nextPulseTime = nextPulseTime;
     }
 
-    public Infection(InfectionStage stage, InfectionMode mode, MiasmaPropertyModifiers modifiers) {
-        this(stage, mode, 0, 0, 0, 0, 0, 0, 0);
+    /**
+     * Creates a new infection.
+     *
+     * @param stage the stage to start the infection at
+     * @param mode the mode to start the infection in
+     * @param modifiers the modifiers to apply
+     * @param clock a supplier of the current game time
+     */
+    public Infection(InfectionStage stage, InfectionMode mode, MiasmaPropertyModifiers modifiers, LongSupplier clock) {
+        this(clock, stage, mode, 0, 0, 0, 0, 0, 0, clock.getAsLong(), 0);
         recalculateTargets(modifiers);
+        this.nextPulseTime = modeChangeTime + ticksPerPulse;
     }
 
-    public Infection(CompoundNBT nbt) {
-        this(InfectionStage.WARNING, InfectionMode.PAUSED, 0, 0, 0, 0, 0, 0, 0);
-        recalculateTargets(MiasmaPropertyModifiers.empty());
-        deserializeNBT(nbt);
+    /**
+     * Loads an infection from the packed form written by {@link #pack()}.
+     * <p>
+     *     The stored ratios and targets, which were calculated with the entity's modifiers, are kept until the infection
+     *     next pulses.  Only if they are missing or invalid are they recalculated from the configuration alone.
+     * </p>
+     *
+     * @param packed the packed infection
+     * @param clock a supplier of the current game time
+     */
+    public Infection(int[] packed, LongSupplier clock) {
+        this(clock,
+                unpackEnum(InfectionStage.values(), packed, PACKED_STAGE, InfectionStage.WARNING),
+                unpackEnum(InfectionMode.values(), packed, PACKED_MODE, InfectionMode.PAUSED),
+                unpackInt(packed, PACKED_CLEANSING_RATIO),
+                unpackInt(packed, PACKED_INTENSIFYING_RATIO),
+                unpackInt(packed, PACKED_TARGET_TICKS),
+                unpackInt(packed, PACKED_TICKS_PER_PULSE),
+                Math.max(0, unpackInt(packed, PACKED_CLEANSING_TICKS)),
+                Math.max(0, unpackInt(packed, PACKED_INTENSIFYING_TICKS)),
+                clock.getAsLong(), 0);
+        if (cleansingRatio <= 0 || intensifyingRatio <= 0 || targetTicks <= 0 || ticksPerPulse <= 0) {
+            recalculateTargets(MiasmaPropertyModifiers.empty());
+        }
+        this.nextPulseTime = modeChangeTime + Math.max(0, unpackInt(packed, PACKED_PULSE_TICKS));
+    }
+
+    /**
+     * Returns a copy of this infection driven by another game clock, such as that of the entity replacing this one's.
+     * <p>
+     *     Progress and the time to the next pulse carry over unchanged, as do the ratios and targets.
+     * </p>
+     */
+    public Infection copy(LongSupplier clock) {
+        long now = this.clock.getAsLong();
+        long copyNow = clock.getAsLong();
+        Infection copy = new Infection(clock, stage, mode, cleansingRatio, intensifyingRatio, targetTicks, ticksPerPulse,
+                getCleansingTicks(now), getIntensifyingTicks(now), copyNow, copyNow + Math.max(0, nextPulseTime - now));
+        copy.targetsStage = targetsStage;
+        copy.targetsModifiers = targetsModifiers;
+        copy.targetsGeneration = targetsGeneration;
+        return copy;
+    }
+
+    /**
+     * Loads an infection from the sync state written by {@link #writeSyncState(int[], int)}.
+     * <p>
+     *     The infection is anchored at the game time the state was written, rather than when it was received, so its
+     *     progress is unaffected by network latency.  Progress is then extrapolated from the local game clock.
+     * </p>
+     *
+     * @param fields the array holding the sync state
+     * @param offset the index of the first field
+     * @param anchorTime the game time the sync state was written at
+     * @param clock a supplier of the current game time
+     */
+    public Infection(int[] fields, int offset, long anchorTime, LongSupplier clock) {
+        this(clock, fields, offset, Math.min(anchorTime, clock.getAsLong()));
+    }
+
+    private Infection(LongSupplier clock, int[] fields, int offset, long anchorTime) {
+        this(clock,
+                InfectionStage.values()[fields[offset + SYNC_STAGE]],
+                InfectionMode.values()[fields[offset + SYNC_MODE]],
+                fields[offset + SYNC_CLEANSING_RATIO],
+                fields[offset + SYNC_INTENSIFYING_RATIO],
+                fields[offset + SYNC_TARGET_TICKS],
+                fields[offset + SYNC_TICKS_PER_PULSE],
+                fields[offset + SYNC_CLEANSING_TICKS],
+                fields[offset + SYNC_INTENSIFYING_TICKS],
+                anchorTime,
+                anchorTime + fields[offset + SYNC_PULSE_TICKS]);
     }
 
     /**
      * Called to re-calculate the ratios and target ticks to change stage.
      * <p>
-     *     Should be invoked if the stage or modifiers have changed.
+     *     Should be invoked if the stage or modifiers may have changed.  Does nothing if neither they nor the
+     *     configuration have changed since the last call.
      * </p>
      */
     private void recalculateTargets(MiasmaPropertyModifiers modifiers) {
-        int tC = fracMult(MiasmaLogic.getTotalTicksToCleanseStage(stage), modifiers.getModifier(MiasmaPropertyModifierType.CLEANSE_STAGE_TIME));
-        int tI = fracMult(MiasmaLogic.getTotalTicksToAdvanceStage(stage), modifiers.getModifier(MiasmaPropertyModifierType.INTENSIFY_STAGE_TIME));
-        int gcd = IntMath.gcd(tC, tI);
-        this.cleansingRatio = tC / gcd;
-        this.intensifyingRatio = tI / gcd;
-        this.targetTicks = tI;
-        this.ticksPerPulse = MiasmaLogic.getGameTicksPerPulse(stage);
+        // Read before fetching the targets, so a clear in between is seen as stale on the next call rather than missed
+        int generation = InfectionTargets.getGeneration();
+        if (stage == targetsStage
+                && targetsGeneration == generation
+                && modifiers.equals(targetsModifiers)) {
+            return;
+        }
+        detachViews();
+        InfectionTargets targets = InfectionTargets.get(stage, modifiers);
+        this.cleansingRatio = targets.getCleansingRatio();
+        this.intensifyingRatio = targets.getIntensifyingRatio();
+        this.targetTicks = targets.getTargetTicks();
+        this.ticksPerPulse = targets.getTicksPerPulse();
+        this.targetsStage = stage;
+        this.targetsModifiers = modifiers;
+        this.targetsGeneration = generation;
     }
 
-    /** Returns an immutable copy of this infection. */
+    /**
+     * Returns an immutable view of this infection, frozen at the current game time.
+     * <p>
+     *     The view reads through to this infection, and is only copied if this infection changes while it is still in
+     *     use.  Repeated calls within the same game tick return the same view.
+     * </p>
+     */
     public IInfection getSnapshot() {
-        return new Infection(stage, mode, cleansingRatio, intensifyingRatio, targetTicks, ticksPerPulse, cleansingTicks, intensifyingTicks, gameTicks);
+        long now = clock.getAsLong();
+        if (lastView != null && lastView.gameTime == now) {
+            return lastView;
+        }
+        if (viewGeneration == null) {
+            viewGeneration = new ViewGeneration(this);
+        }
+        return lastView = new View(viewGeneration, now);
+    }
+
+    /**
+     * Called before any change visible through {@link IInfection}.  Freezes a copy of the current state for any views
+     * handed out since the last change.
+     */
+    private void detachViews() {
+        if (viewGeneration != null) {
+            viewGeneration.source = new Infection(clock, stage, mode, cleansingRatio, intensifyingRatio, targetTicks, ticksPerPulse, cleansingTicks, intensifyingTicks, modeChangeTime, nextPulseTime);
+            viewGeneration = null;
+            lastView = null;
+        }
     }
 
     @Override
@@ -103,21 +233,33 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
 
     @Override
     public float getStageProgress() {
-        return ((float) (intensifyingTicks - ((cleansingTicks * intensifyingRatio) / cleansingRatio)) / (float) targetTicks);
+        return getStageProgress(clock.getAsLong());
+    }
+
+    private float getStageProgress(long gameTime) {
+        return ((float) (getIntensifyingTicks(gameTime) - ((getCleansingTicks(gameTime) * intensifyingRatio) / cleansingRatio)) / (float) targetTicks);
     }
 
     /**
      * Returns the number of ticks that have elapsed in {@link InfectionMode#CLEANSING} mode.
      */
     public int getCleansingTicks() {
-        return cleansingTicks;
+        return getCleansingTicks(clock.getAsLong());
+    }
+
+    private int getCleansingTicks(long gameTime) {
+        return mode == InfectionMode.CLEANSING ? cleansingTicks + (int) (gameTime - modeChangeTime) : cleansingTicks;
     }
 
     /**
      * Returns the number of ticks that have elapsed in {@link InfectionMode#INTENSIFYING} mode.
      */
     public int getIntensifyingTicks() {
-        return intensifyingTicks;
+        return getIntensifyingTicks(clock.getAsLong());
+    }
+
+    private int getIntensifyingTicks(long gameTime) {
+        return mode == InfectionMode.INTENSIFYING ? intensifyingTicks + (int) (gameTime - modeChangeTime) : intensifyingTicks;
     }
 
     /**
@@ -125,7 +267,11 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
      */
     @Override
     public Optional<Integer> getGameTicksToCleanseStage() {
-        return Optional.of(((intensifyingTicks * cleansingRatio) / intensifyingRatio) - cleansingTicks);
+        return getGameTicksToCleanseStage(clock.getAsLong());
+    }
+
+    private Optional<Integer> getGameTicksToCleanseStage(long gameTime) {
+        return Optional.of(((getIntensifyingTicks(gameTime) * cleansingRatio) / intensifyingRatio) - getCleansingTicks(gameTime));
     }
 
     /**
@@ -133,10 +279,14 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
      */
     @Override
     public Optional<Integer> getGameTicksToIntensifyStage() {
-        if (stage == InfectionStage.KILLING && !CommonConfig.INSTANCE.killStageKillsOnExpiry()) {
+        return getGameTicksToIntensifyStage(clock.getAsLong());
+    }
+
+    private Optional<Integer> getGameTicksToIntensifyStage(long gameTime) {
+        if (stage == InfectionStage.KILLING && !CommonConfig.INSTANCE.getSnapshot().killStageKillsOnExpiry()) {
             return Optional.empty();
         } else {
-            return Optional.of(targetTicks - (intensifyingTicks - ((cleansingTicks * intensifyingRatio) / cleansingRatio)));
+            return Optional.of(targetTicks - (getIntensifyingTicks(gameTime) - ((getCleansingTicks(gameTime) * intensifyingRatio) / cleansingRatio)));
         }
     }
 
@@ -147,7 +297,7 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
      * @return {@code true} if it is time to change infection stage.
      */
     public boolean pulse(InfectionMode mode, MiasmaPropertyModifiers modifiers) {
-        this.mode = mode;
+        changeMode(mode, clock.getAsLong());
         recalculateTargets(modifiers);
         switch (mode) {
             case CLEANSING:
@@ -160,6 +310,15 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
 
     /** Sets the current infection mode. */
     public void setMode(InfectionMode mode) {
+        changeMode(mode, clock.getAsLong());
+    }
+
+    /** Folds the time spent in the current mode into the accumulated ticks, then switches to the given mode. */
+    private void changeMode(InfectionMode mode, long gameTime) {
+        detachViews();
+        this.cleansingTicks = getCleansingTicks(gameTime);
+        this.intensifyingTicks = getIntensifyingTicks(gameTime);
+        this.modeChangeTime = gameTime;
         this.mode = mode;
     }
 
@@ -170,85 +329,235 @@ public class Infection implements IInfection, INBTSerializable<CompoundNBT> {
      *                           intensifying.
      */
     public void setStage(InfectionStage stage, boolean startAtCleanseEdge, MiasmaPropertyModifiers modifiers) {
+        detachViews();
         this.stage = stage;
         recalculateTargets(modifiers);
         this.cleansingTicks = 0;
         this.intensifyingTicks = startAtCleanseEdge ? 0 : targetTicks;
+        this.modeChangeTime = clock.getAsLong();
+        // The pulse rate may have changed with the stage
+        this.nextPulseTime = Math.min(nextPulseTime, modeChangeTime + ticksPerPulse);
     }
 
     /**
-     * Increments the tick counter.
-     * @return {@code true} if it is time for an infection pulse
+     * Checks the pulse deadline against the game clock.
+     * @return {@code true} if it is time for an infection pulse, in which case the following pulse is scheduled.
      */
     public boolean gameTick() {
-        switch (mode) {
-            case CLEANSING:
-                cleansingTicks++;
-                break;
-            case INTENSIFYING:
-                intensifyingTicks++;
-                break;
-        }
-
-        if (++gameTicks >= ticksPerPulse) {
-            gameTicks = 0;
+        long now = clock.getAsLong();
+        if (now >= nextPulseTime) {
+            nextPulseTime = now + ticksPerPulse;
             return true;
         }
         return false;
     }
 
-    public int getGameTicks() {
-        return gameTicks;
+    /** Returns the game time of the next scheduled pulse. */
+    public long getNextPulseTime() {
+        return nextPulseTime;
     }
 
-    /** Multiplies an integer by a fraction, then return only the whole number portion of that fraction. */
-    private static int fracMult(int a, Fraction b) {
-        return Fraction.getFraction(a).multiplyBy(b).intValue();
+    /**
+     * Returns the number of game ticks until the next scheduled pulse.
+     * <p>
+     *     If the scheduled pulse has passed without this infection being told about it, as on the client, the
+     *     following pulses are assumed to have continued at the current rate.
+     * </p>
+     */
+    public int getGameTicksToPulse() {
+        long ticks = nextPulseTime - clock.getAsLong();
+        if (ticks < 0 && ticksPerPulse > 0) {
+            ticks = Math.floorMod(ticks, (long) ticksPerPulse);
+        }
+        return (int) Math.max(0, ticks);
     }
 
-    // Compound tag keys when (de)serializing NBT
-    private static final int CURRENT_VERSION = 1;
-    private static final String KEY_STAGE = "stage";
-    private static final String KEY_MODE = "mode";
-    private static final String KEY_CLEANSING_RATIO = "cRatio";
-    private static final String KEY_INTENSIFYING_RATIO = "iRatio";
-    private static final String KEY_TARGET_TICKS = "targetTicks";
-    private static final String KEY_TICKS_PER_PULSE = "ticksPerPulse";
-    private static final String KEY_CLEANSING_TICKS = "cTicks";
-    private static final String KEY_INTENSIFYING_TICKS = "iTicks";
-    private static final String KEY_GAME_TICKS = "gTicks";
+    // Field offsets within the sync state
+    /** The number of fields written by {@link #writeSyncState(int[], int)}. */
+    public static final int SYNC_FIELD_COUNT = 9;
+    private static final int SYNC_STAGE = 0;
+    private static final int SYNC_MODE = 1;
+    private static final int SYNC_CLEANSING_RATIO = 2;
+    private static final int SYNC_INTENSIFYING_RATIO = 3;
+    private static final int SYNC_TARGET_TICKS = 4;
+    private static final int SYNC_TICKS_PER_PULSE = 5;
+    private static final int SYNC_CLEANSING_TICKS = 6;
+    private static final int SYNC_INTENSIFYING_TICKS = 7;
+    private static final int SYNC_PULSE_TICKS = 8;
 
-    @Override
-    public CompoundNBT serializeNBT() {
-        return VersionedNBT.serialize(CURRENT_VERSION, nbt -> {
-            nbt.putString(KEY_STAGE, stage.name());
-            nbt.putString(KEY_MODE, mode.name());
-            nbt.putInt(KEY_CLEANSING_RATIO, cleansingRatio);
-            nbt.putInt(KEY_INTENSIFYING_RATIO, intensifyingRatio);
-            nbt.putInt(KEY_TARGET_TICKS, targetTicks);
-            nbt.putInt(KEY_TICKS_PER_PULSE, ticksPerPulse);
-            nbt.putInt(KEY_CLEANSING_TICKS, cleansingTicks);
-            nbt.putInt(KEY_INTENSIFYING_TICKS, intensifyingTicks);
-            nbt.putInt(KEY_GAME_TICKS, gameTicks);
-        });
+    /**
+     * Writes the state of this infection as {@link #SYNC_FIELD_COUNT} ints, for synchronizing to the client.
+     * <p>
+     *     As with NBT, tick counts are relative to the current game time.  Most fields hold their value between
+     *     syncs, so the state lends itself to being sent as a delta against the previous one.
+     * </p>
+     *
+     * @param fields the array to write the sync state into
+     * @param offset the index of the first field
+     */
+    public void writeSyncState(int[] fields, int offset) {
+        long now = clock.getAsLong();
+        fields[offset + SYNC_STAGE] = stage.ordinal();
+        fields[offset + SYNC_MODE] = mode.ordinal();
+        fields[offset + SYNC_CLEANSING_RATIO] = cleansingRatio;
+        fields[offset + SYNC_INTENSIFYING_RATIO] = intensifyingRatio;
+        fields[offset + SYNC_TARGET_TICKS] = targetTicks;
+        fields[offset + SYNC_TICKS_PER_PULSE] = ticksPerPulse;
+        fields[offset + SYNC_CLEANSING_TICKS] = getCleansingTicks(now);
+        fields[offset + SYNC_INTENSIFYING_TICKS] = getIntensifyingTicks(now);
+        fields[offset + SYNC_PULSE_TICKS] = (int) Math.max(0, nextPulseTime - now);
     }
 
-    @Override
-    public void deserializeNBT(CompoundNBT nbt) {
-        VersionedNBT.deserialize(nbt, (v -> v == CURRENT_VERSION), (v, tag) -> {
-            if (v == CURRENT_VERSION) {
-                this.stage = InfectionStage.fromName(tag.getString(KEY_STAGE)).orElse(InfectionStage.WARNING);
-                this.mode = InfectionMode.fromName(tag.getString(KEY_MODE)).orElse(InfectionMode.PAUSED);
-                this.cleansingRatio = tag.getInt(KEY_CLEANSING_RATIO);
-                this.intensifyingRatio = tag.getInt(KEY_INTENSIFYING_RATIO);
-                this.targetTicks = tag.getInt(KEY_TARGET_TICKS);
-                this.ticksPerPulse = tag.getInt(KEY_TICKS_PER_PULSE);
-                this.cleansingTicks = tag.getInt(KEY_CLEANSING_TICKS);
-                this.intensifyingTicks = tag.getInt(KEY_INTENSIFYING_TICKS);
-                this.gameTicks = tag.getInt(KEY_GAME_TICKS);
-            } else {
-                recalculateTargets(MiasmaPropertyModifiers.empty());
+    /**
+     * Checks whether an infection's sync state has drifted too far from what a client would predict from state sent
+     * earlier.
+     * <p>
+     *     Any change to the stage, mode or derived targets counts as drift.  Tick counts are extrapolated from the
+     *     earlier state in its mode, and drift once they are out by more than {@code maxDrift} ticks.  The ticks until
+     *     the next pulse are not compared, as the client predicts those on its own.
+     * </p>
+     *
+     * @param sent the sync state previously sent
+     * @param current the current sync state
+     * @param offset the index of the first field in both arrays
+     * @param elapsed the game ticks elapsed since {@code sent} was written
+     * @param maxDrift the largest acceptable error in the tick counts
+     */
+    public static boolean isSyncStateDrifted(int[] sent, int[] current, int offset, long elapsed, int maxDrift) {
+        for (int i = SYNC_STAGE; i <= SYNC_TICKS_PER_PULSE; i++) {
+            if (sent[offset + i] != current[offset + i]) {
+                return true;
             }
-        }, () -> recalculateTargets(MiasmaPropertyModifiers.empty()) );
+        }
+        InfectionMode mode = InfectionMode.values()[sent[offset + SYNC_MODE]];
+        long cleansingTicks = sent[offset + SYNC_CLEANSING_TICKS] + (mode == InfectionMode.CLEANSING ? elapsed : 0);
+        long intensifyingTicks = sent[offset + SYNC_INTENSIFYING_TICKS] + (mode == InfectionMode.INTENSIFYING ? elapsed : 0);
+        return Math.abs(cleansingTicks - current[offset + SYNC_CLEANSING_TICKS]) > maxDrift
+                || Math.abs(intensifyingTicks - current[offset + SYNC_INTENSIFYING_TICKS]) > maxDrift;
+    }
+
+    /** Returns the stage held in a sync state written by {@link #writeSyncState(int[], int)}. */
+    public static InfectionStage getSyncedStage(int[] fields, int offset) {
+        return InfectionStage.values()[fields[offset + SYNC_STAGE]];
+    }
+
+    /** Returns the mode held in a sync state written by {@link #writeSyncState(int[], int)}. */
+    public static InfectionMode getSyncedMode(int[] fields, int offset) {
+        return InfectionMode.values()[fields[offset + SYNC_MODE]];
+    }
+
+    /** Returns the game ticks per pulse held in a sync state written by {@link #writeSyncState(int[], int)}. */
+    public static int getSyncedTicksPerPulse(int[] fields, int offset) {
+        return fields[offset + SYNC_TICKS_PER_PULSE];
+    }
+
+    /**
+     * Returns the game ticks from when a sync state was written until the next pulse, as held in a sync state written
+     * by {@link #writeSyncState(int[], int)}.
+     */
+    public static int getSyncedPulseTicks(int[] fields, int offset) {
+        return fields[offset + SYNC_PULSE_TICKS];
+    }
+
+    // Indices within the packed form
+    private static final int PACKED_STAGE = 0;
+    private static final int PACKED_MODE = 1;
+    private static final int PACKED_CLEANSING_RATIO = 2;
+    private static final int PACKED_INTENSIFYING_RATIO = 3;
+    private static final int PACKED_TARGET_TICKS = 4;
+    private static final int PACKED_TICKS_PER_PULSE = 5;
+    private static final int PACKED_CLEANSING_TICKS = 6;
+    private static final int PACKED_INTENSIFYING_TICKS = 7;
+    private static final int PACKED_PULSE_TICKS = 8;
+    private static final int PACKED_SIZE = 9;
+
+    /**
+     * Packs the persistent state of this infection into an array, for storage as an
+     * {@link net.minecraft.nbt.IntArrayNBT}.
+     * <p>
+     *     The stage and mode are stored as ordinals, followed by the ratios and targets and then the tick counts.  The
+     *     ratios and targets are stored because they depend on the entity's modifiers, which are not known while
+     *     loading.  Tick counts are stored relative to the moment of packing, rather than as game times, so the data
+     *     remains valid when loaded against a different clock.
+     * </p>
+     */
+    public int[] pack() {
+        long now = clock.getAsLong();
+        return pack(stage, mode, cleansingRatio, intensifyingRatio, targetTicks, ticksPerPulse,
+                getCleansingTicks(now), getIntensifyingTicks(now), (int) Math.max(0, nextPulseTime - now));
+    }
+
+    /**
+     * Packs infection state in the form written by {@link #pack()}.  Used to migrate older formats.
+     * <p>
+     *     Ratios and targets of zero are recalculated from the configuration when loaded.
+     * </p>
+     */
+    public static int[] pack(InfectionStage stage, InfectionMode mode, int cleansingRatio, int intensifyingRatio, int targetTicks, int ticksPerPulse, int cleansingTicks, int intensifyingTicks, int pulseTicks) {
+        int[] packed = new int[PACKED_SIZE];
+        packed[PACKED_STAGE] = stage.ordinal();
+        packed[PACKED_MODE] = mode.ordinal();
+        packed[PACKED_CLEANSING_RATIO] = cleansingRatio;
+        packed[PACKED_INTENSIFYING_RATIO] = intensifyingRatio;
+        packed[PACKED_TARGET_TICKS] = targetTicks;
+        packed[PACKED_TICKS_PER_PULSE] = ticksPerPulse;
+        packed[PACKED_CLEANSING_TICKS] = cleansingTicks;
+        packed[PACKED_INTENSIFYING_TICKS] = intensifyingTicks;
+        packed[PACKED_PULSE_TICKS] = pulseTicks;
+        return packed;
+    }
+
+    private static int unpackInt(int[] packed, int index) {
+        return index < packed.length ? packed[index] : 0;
+    }
+
+    private static <E extends Enum<E>> E unpackEnum(E[] values, int[] packed, int index, E fallback) {
+        int ordinal = unpackInt(packed, index);
+        return index < packed.length && ordinal >= 0 && ordinal < values.length ? values[ordinal] : fallback;
+    }
+
+    /** The set of views handed out between two changes to an infection, all reading from the same source. */
+    private static final class ViewGeneration {
+        private Infection source;
+
+        private ViewGeneration(Infection source) {
+            this.source = source;
+        }
+    }
+
+    /** A read-only view of an infection as of a given game time. */
+    private static final class View implements IInfection {
+        private final ViewGeneration generation;
+        private final long gameTime;
+
+        private View(ViewGeneration generation, long gameTime) {
+            this.generation = generation;
+            this.gameTime = gameTime;
+        }
+
+        @Override
+        public InfectionStage getStage() {
+            return generation.source.stage;
+        }
+
+        @Override
+        public InfectionMode getMode() {
+            return generation.source.mode;
+        }
+
+        @Override
+        public float getStageProgress() {
+            return generation.source.getStageProgress(gameTime);
+        }
+
+        @Override
+        public Optional<Integer> getGameTicksToCleanseStage() {
+            return generation.source.getGameTicksToCleanseStage(gameTime);
+        }
+
+        @Override
+        public Optional<Integer> getGameTicksToIntensifyStage() {
+            return generation.source.getGameTicksToIntensifyStage(gameTime);
+        }
     }
 }
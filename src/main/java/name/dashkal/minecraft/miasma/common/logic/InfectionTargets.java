@@ -0,0 +1,117 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import com.google.common.math.IntMath;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifierType;
+import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifiers;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The values an {@link Infection} derives from its stage, its modifiers and the configuration.
+ * <p>
+ *     Targets are memoized in a bounded cache keyed by stage and modifier set, as both rarely change between pulses.
+ *     The cache must be cleared whenever the configuration changes.
+ * </p>
+ */
+public final class InfectionTargets {
+    // Distinct modifier sets remembered per stage
+    private static final int MAX_CACHED_PER_STAGE = 64;
+
+    private static final Map<InfectionStage, Map<MiasmaPropertyModifiers, InfectionTargets>> CACHE = new EnumMap<>(InfectionStage.class);
+    // Read without holding the cache lock, so must be volatile to be seen by both threads after a clear
+    private static volatile int generation = 0;
+
+    static {
+        for (InfectionStage stage : InfectionStage.values()) {
+            CACHE.put(stage, new LinkedHashMap<MiasmaPropertyModifiers, InfectionTargets>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<MiasmaPropertyModifiers, InfectionTargets> eldest) {
+                    return size() > MAX_CACHED_PER_STAGE;
+                }
+            });
+        }
+    }
+
+    private final int cleansingRatio;
+    private final int intensifyingRatio;
+    private final int targetTicks;
+    private final int ticksPerPulse;
+
+    private InfectionTargets(int cleansingRatio, int intensifyingRatio, int targetTicks, int ticksPerPulse) {
+        this.cleansingRatio = cleansingRatio;
+        this.intensifyingRatio = intensifyingRatio;
+        this.targetTicks = targetTicks;
+        this.ticksPerPulse = ticksPerPulse;
+    }
+
+    /** Returns the targets for the given stage and modifiers, calculating them if not cached. */
+    public static InfectionTargets get(InfectionStage stage, MiasmaPropertyModifiers modifiers) {
+        // Both the server and client threads calculate targets in single player
+        synchronized (CACHE) {
+            return CACHE.get(stage).computeIfAbsent(modifiers, m -> calculate(stage, m));
+        }
+    }
+
+    /**
+     * Returns the generation of the cache.  Changes every time the cache is cleared, so holders of targets can tell
+     * when theirs are out of date.
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /** Discards every cached target.  Called when the configuration changes. */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.values().forEach(Map::clear);
+            generation++;
+        }
+    }
+
+    private static InfectionTargets calculate(InfectionStage stage, MiasmaPropertyModifiers modifiers) {
+        int tC = modifiers.applyTo(MiasmaPropertyModifierType.CLEANSE_STAGE_TIME, MiasmaLogic.getTotalTicksToCleanseStage(stage));
+        int tI = modifiers.applyTo(MiasmaPropertyModifierType.INTENSIFY_STAGE_TIME, MiasmaLogic.getTotalTicksToAdvanceStage(stage));
+        int gcd = IntMath.gcd(tC, tI);
+        return new InfectionTargets(tC / gcd, tI / gcd, tI, MiasmaLogic.getGameTicksPerPulse(stage));
+    }
+
+    /** Returns the cleansing side of the cleansing to intensifying time ratio, in lowest terms. */
+    public int getCleansingRatio() {
+        return cleansingRatio;
+    }
+
+    /** Returns the intensifying side of the cleansing to intensifying time ratio, in lowest terms. */
+    public int getIntensifyingRatio() {
+        return intensifyingRatio;
+    }
+
+    /** Returns the number of intensifying ticks required to advance a stage. */
+    public int getTargetTicks() {
+        return targetTicks;
+    }
+
+    /** Returns the number of game ticks between pulses. */
+    public int getTicksPerPulse() {
+        return ticksPerPulse;
+    }
+}
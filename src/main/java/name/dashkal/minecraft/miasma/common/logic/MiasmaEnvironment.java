@@ -0,0 +1,86 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import net.minecraft.world.World;
+
+/**
+ * Snapshot of the world-wide conditions that govern the miasma.
+ * <p>
+ *     The miasma is active only during the day and while it is not raining.  These are facts about the world, not
+ *     about any one entity, so they are captured once per world tick rather than re-evaluated for every entity.
+ * </p>
+ */
+public final class MiasmaEnvironment {
+    /** Changes between two consecutive environment snapshots. */
+    public enum Transition {
+        NONE, DAWN, DUSK, RAIN_START, RAIN_STOP
+    }
+
+    private static final MiasmaEnvironment[] VALUES = {
+            new MiasmaEnvironment(false, false),
+            new MiasmaEnvironment(false, true),
+            new MiasmaEnvironment(true, false),
+            new MiasmaEnvironment(true, true)
+    };
+
+    private final boolean daytime;
+    private final boolean raining;
+
+    private MiasmaEnvironment(boolean daytime, boolean raining) {
+        this.daytime = daytime;
+        this.raining = raining;
+    }
+
+    /** Captures the current environment of the given world. */
+    public static MiasmaEnvironment of(World world) {
+        boolean daytime = world.getSkyDarken() < 4; // Constant from world.isDay()
+        boolean raining = world.getLevelData().isRaining();
+        return VALUES[(daytime ? 2 : 0) | (raining ? 1 : 0)];
+    }
+
+    /** Returns {@code true} if the sun is up. */
+    public boolean isDaytime() {
+        return daytime;
+    }
+
+    /** Returns {@code true} if it is raining. */
+    public boolean isRaining() {
+        return raining;
+    }
+
+    /** Returns {@code true} if the miasma can infect entities under these conditions. */
+    public boolean isActive() {
+        return daytime && !raining;
+    }
+
+    /**
+     * Returns the change from the given previous environment to this one.
+     * <p>
+     *     If both daylight and rain changed in the same tick, the daylight change is reported.
+     * </p>
+     */
+    public Transition getTransitionFrom(MiasmaEnvironment previous) {
+        if (daytime != previous.daytime) {
+            return daytime ? Transition.DAWN : Transition.DUSK;
+        } else if (raining != previous.raining) {
+            return raining ? Transition.RAIN_START : Transition.RAIN_STOP;
+        }
+        return Transition.NONE;
+    }
+}
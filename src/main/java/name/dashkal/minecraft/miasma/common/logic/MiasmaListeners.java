@@ -0,0 +1,133 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import name.dashkal.minecraft.miasma.api.InfectionMode;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.api.listener.MiasmaListener;
+import net.minecraft.entity.LivingEntity;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Registry of the {@link MiasmaListener}s registered through the API.
+ * <p>
+ *     Each kind of listener is kept in a copy-on-write array, so firing a listener is a plain loop with no locking or
+ *     allocation.  Registration is expected to happen rarely, typically during mod setup.
+ * </p>
+ * <p>
+ *     The client runs the miasma logic for its own player too.  Listeners are only fired for server side entities, so
+ *     they see each infection once.
+ * </p>
+ */
+public class MiasmaListeners {
+    private static volatile MiasmaListener.Apply[] applyListeners = new MiasmaListener.Apply[0];
+    private static volatile MiasmaListener.Pulse[] pulseListeners = new MiasmaListener.Pulse[0];
+    private static volatile MiasmaListener.StageChange[] stageChangeListeners = new MiasmaListener.StageChange[0];
+    private static volatile MiasmaListener.KillCheck[] killCheckListeners = new MiasmaListener.KillCheck[0];
+    private static volatile MiasmaListener.Remove[] removeListeners = new MiasmaListener.Remove[0];
+
+    /** Registers an apply listener. */
+    public static synchronized void addApplyListener(MiasmaListener.Apply listener) {
+        applyListeners = append(applyListeners, listener);
+    }
+
+    /** Registers a pulse listener. */
+    public static synchronized void addPulseListener(MiasmaListener.Pulse listener) {
+        pulseListeners = append(pulseListeners, listener);
+    }
+
+    /** Registers a stage change listener. */
+    public static synchronized void addStageChangeListener(MiasmaListener.StageChange listener) {
+        stageChangeListeners = append(stageChangeListeners, listener);
+    }
+
+    /** Registers a kill check listener. */
+    public static synchronized void addKillCheckListener(MiasmaListener.KillCheck listener) {
+        killCheckListeners = append(killCheckListeners, listener);
+    }
+
+    /** Registers a remove listener. */
+    public static synchronized void addRemoveListener(MiasmaListener.Remove listener) {
+        removeListeners = append(removeListeners, listener);
+    }
+
+    private static <T> T[] append(T[] listeners, T listener) {
+        T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = Objects.requireNonNull(listener);
+        return result;
+    }
+
+    static void fireApply(LivingEntity entity, InfectionStage stage) {
+        if (isClientSide(entity)) {
+            return;
+        }
+        for (MiasmaListener.Apply listener : applyListeners) {
+            listener.onApply(entity, stage);
+        }
+    }
+
+    /** Fires the pulse listeners.  The stage progress is only calculated if there are any. */
+    static void firePulse(LivingEntity entity, Infection infection) {
+        MiasmaListener.Pulse[] listeners = pulseListeners;
+        if (listeners.length > 0 && !isClientSide(entity)) {
+            InfectionStage stage = infection.getStage();
+            InfectionMode mode = infection.getMode();
+            float stageProgress = infection.getStageProgress();
+            for (MiasmaListener.Pulse listener : listeners) {
+                listener.onPulse(entity, stage, mode, stageProgress);
+            }
+        }
+    }
+
+    static void fireStageChange(LivingEntity entity, InfectionStage oldStage, InfectionStage newStage) {
+        if (isClientSide(entity)) {
+            return;
+        }
+        for (MiasmaListener.StageChange listener : stageChangeListeners) {
+            listener.onStageChange(entity, oldStage, newStage);
+        }
+    }
+
+    /** Returns {@code true} if every kill check listener allows the kill.  Always allowed on the client. */
+    static boolean checkKill(LivingEntity entity) {
+        if (isClientSide(entity)) {
+            return true;
+        }
+        for (MiasmaListener.KillCheck listener : killCheckListeners) {
+            if (!listener.checkKill(entity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void fireRemove(LivingEntity entity, InfectionStage stage) {
+        if (isClientSide(entity)) {
+            return;
+        }
+        for (MiasmaListener.Remove listener : removeListeners) {
+            listener.onRemove(entity, stage);
+        }
+    }
+
+    private static boolean isClientSide(LivingEntity entity) {
+        return entity.getCommandSenderWorld().isClientSide();
+    }
+}
@@ -20,6 +20,7 @@ package name.dashkal.minecraft.miasma.common.logic;
 import name.dashkal.minecraft.miasma.api.InfectionMode;
 import name.dashkal.minecraft.miasma.api.InfectionStage;
 import name.dashkal.minecraft.miasma.api.capability.IMiasmaModifier;
+import name.dashkal.minecraft.miasma.api.events.MiasmaBatchEvent.*;
 import name.dashkal.minecraft.miasma.api.events.MiasmaEvent.*;
 import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifierType;
 import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifiers;
@@ -29,16 +30,22 @@ import name.dashkal.minecraft.miasma.common.capability.MiasmaHandlerCapability;
 import name.dashkal.minecraft.miasma.common.config.CommonConfig;
 import name.dashkal.minecraft.miasma.common.effect.MiasmaEffect;
 import name.dashkal.minecraft.miasma.common.network.MiasmaChannel;
-import name.dashkal.minecraft.miasma.common.network.MiasmaHandlerSyncPacket;
+import name.dashkal.minecraft.miasma.lib.EventListenerCheck;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.text.TextFormatting;
-import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
-import org.apache.commons.lang3.math.Fraction;
-
+import net.minecraft.world.server.ServerWorld;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static net.minecraftforge.common.MinecraftForge.EVENT_BUS;
@@ -49,6 +56,8 @@ import static net.minecraftforge.common.MinecraftForge.EVENT_BUS;
 @SuppressWarnings("unused")
 public class MiasmaLogic {
     private static final CommonConfig COMMON_CONFIG = CommonConfig.INSTANCE;
+    /** Used to skip building events, and the infection snapshots they carry, when nothing is listening for them. */
+    private static final EventListenerCheck LISTENERS = new EventListenerCheck(EVENT_BUS);
 
     /** Damage type used when in the warning phase of the Miasma effect. Bypasses Armor. */
     public static final DamageSource DAMAGE_HARM = new DamageSource("miasma_harm").bypassArmor();
@@ -56,7 +65,8 @@ public class MiasmaLogic {
     public static final DamageSource DAMAGE_KILL = new DamageSource("miasma_kill").bypassArmor().bypassMagic();
 
     /**
-     * Logic to run every game tick for any entity with the {@link IMiasmaHandler} capability.
+     * Logic to run for any entity with the {@link IMiasmaHandler} capability, whenever it is due according to
+     * {@link #getNextGameTickTime(IMiasmaHandler)}.
      */
     public static void gameTick(LivingEntity entity, IMiasmaHandler miasmaHandler) {
         Optional<Infection> infection = miasmaHandler.getInfection();
@@ -66,13 +76,22 @@ public class MiasmaLogic {
                 MiasmaLogic.miasmaPulse(entity, miasmaHandler, infection.get());
             }
         } else {
-            // The entity is not infected. Try now.
-            if (miasmaHandler.isInfectionAttemptTick() && MiasmaLogic.mayBeAffected(entity)) {
+            // The entity is not infected. Try now.  Only the server infects.
+            if (!entity.getCommandSenderWorld().isClientSide() && MiasmaLogic.mayBeAffected(entity)) {
                 MiasmaLogic.tryApplyInfection(entity, miasmaHandler, InfectionStage.WARNING);
             }
         }
     }
 
+    /**
+     * Returns the game time at which {@link #gameTick(LivingEntity, IMiasmaHandler)} next has work to do for the given
+     * handler: the next pulse if infected, otherwise the next infection attempt.
+     */
+    public static long getNextGameTickTime(IMiasmaHandler miasmaHandler) {
+        Optional<Infection> infection = miasmaHandler.getInfection();
+        return infection.isPresent() ? infection.get().getNextPulseTime() : miasmaHandler.getNextInfectionAttemptTime();
+    }
+
     /**
      * Check if the given entity is subject to infection by miasma.
      * <p>
@@ -89,9 +108,19 @@ public class MiasmaLogic {
         World world = entity.getCommandSenderWorld();
 
         // The predicates should be roughly in order of CPU cost
+        if (world instanceof ServerWorld) {
+            MiasmaWorld miasmaWorld = MiasmaWorld.get((ServerWorld) world);
+            return (entity.isAlive()
+                    && miasmaWorld.getEnvironment().isActive()
+                    && miasmaWorld.getSkyExposure().canSeeSky(
+                            MathHelper.floor(entity.getX()),
+                            MathHelper.floor(entity.getY()) + 1,
+                            MathHelper.floor(entity.getZ())
+                    )
+            );
+        }
         return (entity.isAlive()
-                && !world.getLevelData().isRaining()
-                && world.getSkyDarken() < 4 // Constant from world.isDay()
+                && MiasmaEnvironment.of(world).isActive()
                 && world.canSeeSky(new BlockPos(entity.position()).above())
         );
     }
@@ -101,6 +130,98 @@ public class MiasmaLogic {
      * @return {@code true} if the miasma was successfully applied
      */
     public static boolean tryApplyInfection(LivingEntity entity, IMiasmaHandler miasmaHandler, InfectionStage stage) {
+        MiasmaPropertyModifiers.Builder builder = checkApplyInfection(entity, miasmaHandler, stage);
+        if (builder != null) {
+            applyInfectionReal(entity, miasmaHandler, stage, builder.build(), true);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempts to infect each of the given entities with the miasma.
+     * <p>
+     *     Each entity is checked as by {@link #tryApplyInfection(LivingEntity, IMiasmaHandler, InfectionStage)},
+     *     except that no per-entity events are fired.  The entities that passed are offered to a single
+     *     {@link InfectionBatchPreApplyEvent} before any of them are infected, and a single
+     *     {@link InfectionBatchPostApplyEvent} follows for those that were.
+     * </p>
+     * @return a bit set with the index of every entity that was infected, in iteration order, set.
+     */
+    public static BitSet tryApplyInfections(Collection<? extends LivingEntity> entities, InfectionStage stage) {
+        BatchIndices indices = new BatchIndices(entities.size());
+        List<LivingEntity> candidates = new ArrayList<>();
+        List<IMiasmaHandler> handlers = new ArrayList<>();
+        List<MiasmaPropertyModifiers> gearModifiers = new ArrayList<>();
+
+        for (LivingEntity entity : entities) {
+            Optional<IMiasmaHandler> miasmaHandler = MiasmaHandlerCapability.getHandler(entity).resolve();
+            if (miasmaHandler.isPresent() && mayApplyInfection(entity, miasmaHandler.get(), stage)) {
+                indices.add();
+                candidates.add(entity);
+                handlers.add(miasmaHandler.get());
+                gearModifiers.add(MiasmaModifierCapability.getTotalGearModifiers(entity, miasmaHandler.get()));
+            } else {
+                indices.skip();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new BitSet();
+        }
+
+        MiasmaPropertyModifiers.Builder batchBuilder = new MiasmaPropertyModifiers.Builder();
+        MiasmaPropertyModifiers.Builder[] entityBuilders = new MiasmaPropertyModifiers.Builder[candidates.size()];
+        BitSet blocked = new BitSet(candidates.size());
+        if (LISTENERS.hasListeners(InfectionBatchPreApplyEvent.class)
+                && EVENT_BUS.post(new InfectionBatchPreApplyEvent(candidates, stage, batchBuilder, entityBuilders, blocked))) {
+            return new BitSet();
+        }
+
+        // Entities wearing the same gear, with no modifiers of their own, share one combined set of modifiers
+        MiasmaPropertyModifiers batchModifiers = batchBuilder.build();
+        Map<MiasmaPropertyModifiers, MiasmaPropertyModifiers> combined = new HashMap<>();
+        BitSet applied = new BitSet(candidates.size());
+        List<LivingEntity> infected = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!blocked.get(i)) {
+                LivingEntity entity = candidates.get(i);
+                MiasmaPropertyModifiers modifiers;
+                if (entityBuilders[i] == null) {
+                    modifiers = combined.computeIfAbsent(gearModifiers.get(i),
+                            gear -> new MiasmaPropertyModifiers.Builder(gear).addAll(batchModifiers).build());
+                } else {
+                    modifiers = entityBuilders[i].addAll(gearModifiers.get(i)).addAll(batchModifiers).build();
+                }
+                applyInfectionReal(entity, handlers.get(i), stage, modifiers, false);
+                applied.set(i);
+                infected.add(entity);
+            }
+        }
+        if (!infected.isEmpty() && LISTENERS.hasListeners(InfectionBatchPostApplyEvent.class)) {
+            EVENT_BUS.post(new InfectionBatchPostApplyEvent(infected, stage));
+        }
+        return indices.toInputBits(applied);
+    }
+
+    /**
+     * Checks whether the given entity may be infected with the miasma, then fires its {@link InfectionPreApplyEvent}.
+     * @return a builder holding the modifiers to infect with, or {@code null} if the infection is blocked
+     */
+    @Nullable
+    private static MiasmaPropertyModifiers.Builder checkApplyInfection(LivingEntity entity, IMiasmaHandler miasmaHandler, InfectionStage stage) {
+        if (mayApplyInfection(entity, miasmaHandler, stage)) {
+            MiasmaPropertyModifiers.Builder builder = new MiasmaPropertyModifiers.Builder(MiasmaModifierCapability.getTotalGearModifiers(entity, miasmaHandler));
+            if (!(LISTENERS.hasListeners(InfectionPreApplyEvent.class) && EVENT_BUS.post(new InfectionPreApplyEvent(entity, stage, false, builder)))) {
+                return builder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the given entity may be infected with the miasma, without firing any events.
+     */
+    private static boolean mayApplyInfection(LivingEntity entity, IMiasmaHandler miasmaHandler, InfectionStage stage) {
         /*
          * Conditions to check:
          *
@@ -109,21 +230,12 @@ public class MiasmaLogic {
          * Entity must not have an infection of equal or greater stage
          * Entity must not be in creative mode
          * Gear must not block the application
-         * The MiasmaPreApplyEvent must not be canceled
          */
-        if (!entity.getCommandSenderWorld().isClientSide()
+        return !entity.getCommandSenderWorld().isClientSide()
             && entity.isAlive()
             && miasmaHandler.getInfection().map(i -> i.getStage().compareTo(stage) < 0).orElse(true)
             && !isCreative(entity)
-            && MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaModifier -> miasmaModifier.checkApply(entity, stage, false))
-        ) {
-            MiasmaPropertyModifiers.Builder builder = new MiasmaPropertyModifiers.Builder(MiasmaModifierCapability.getTotalGearModifiers(entity));
-            if (!EVENT_BUS.post(new InfectionPreApplyEvent(entity, stage, false, builder))) {
-                applyInfectionReal(entity, miasmaHandler, stage, builder.build());
-                return true;
-            }
-        }
-        return false;
+            && MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaHandler, miasmaModifier -> miasmaModifier.checkApply(entity, stage, false));
     }
 
     /**
@@ -143,12 +255,14 @@ public class MiasmaLogic {
         if (entity.isAlive()) {
             return MiasmaHandlerCapability.withCapability(entity, miasmaHandler -> {
                 MiasmaPropertyModifiers.Builder builder = new MiasmaPropertyModifiers.Builder();
-                for (IMiasmaModifier miasmaModifier : MiasmaModifierCapability.getModifiers(entity)) {
+                for (IMiasmaModifier miasmaModifier : MiasmaModifierCapability.getModifiers(entity, miasmaHandler)) {
                     miasmaModifier.checkApply(entity, stage, true);
                     builder.addAll(miasmaModifier.getPropertyModifiers());
                 }
-                EVENT_BUS.post(new InfectionPreApplyEvent(entity, stage, false, builder));
-                applyInfectionReal(entity, miasmaHandler, stage, builder.build());
+                if (LISTENERS.hasListeners(InfectionPreApplyEvent.class)) {
+                    EVENT_BUS.post(new InfectionPreApplyEvent(entity, stage, false, builder));
+                }
+                applyInfectionReal(entity, miasmaHandler, stage, builder.build(), true);
                 return true;
             }).orElse(false);
         }
@@ -158,11 +272,15 @@ public class MiasmaLogic {
     /**
      * Infects the given entity with the miasma at the given rank, overriding any protections.
      */
-    private static void applyInfectionReal(LivingEntity entity, IMiasmaHandler miasmaHandler, InfectionStage stage, MiasmaPropertyModifiers modifiers) {
+    private static void applyInfectionReal(LivingEntity entity, IMiasmaHandler miasmaHandler, InfectionStage stage, MiasmaPropertyModifiers modifiers, boolean fireEvent) {
         Infection infection = miasmaHandler.applyInfection(stage, InfectionMode.INTENSIFYING, modifiers);
         entity.addEffect(MiasmaEffect.createEffectInstance(stage));
-        EVENT_BUS.post(new InfectionPostApplyEvent(entity, infection.getSnapshot()));
-        MiasmaChannel.sendToPlayerClient(entity, new MiasmaHandlerSyncPacket(miasmaHandler));
+        MiasmaListeners.fireApply(entity, stage);
+        if (fireEvent && LISTENERS.hasListeners(InfectionPostApplyEvent.class)) {
+            EVENT_BUS.post(new InfectionPostApplyEvent(entity, infection.getSnapshot()));
+        }
+        MiasmaChannel.syncHandler(entity, miasmaHandler);
+        MiasmaWorld.reschedule(entity);
     }
 
     /**
@@ -179,11 +297,11 @@ public class MiasmaLogic {
         // Check for creative, then check gear, then fire the pre-pulse event.
         // If any of these indicate we should not pulse, set the mode to Paused.
         // Note that the event mutates the modifiers builder!
-        MiasmaPropertyModifiers.Builder modifiersBuilder = new MiasmaPropertyModifiers.Builder(MiasmaModifierCapability.getTotalGearModifiers(entity));
+        MiasmaPropertyModifiers.Builder modifiersBuilder = new MiasmaPropertyModifiers.Builder(MiasmaModifierCapability.getTotalGearModifiers(entity, miasmaHandler));
         infection.setMode(expectedMode);
         if (isCreative(entity)
-        || !MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaModifier -> miasmaModifier.checkPulse(entity, infection.getSnapshot()))
-        || EVENT_BUS.post(new InfectionPrePulseEvent(entity, infection.getSnapshot(), modifiersBuilder))) {
+        || !MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaHandler, miasmaModifier -> miasmaModifier.checkPulse(entity, infection.getSnapshot()))
+        || LISTENERS.hasListeners(InfectionPrePulseEvent.class) && EVENT_BUS.post(new InfectionPrePulseEvent(entity, infection.getSnapshot(), modifiersBuilder))) {
             // Event was canceled, pause.
             newMode = InfectionMode.PAUSED;
         } else {
@@ -196,7 +314,7 @@ public class MiasmaLogic {
         if (!miasmaHandler.getInfection().isPresent()) {
             // Naughty naughty...
             updateEffect(entity, miasmaHandler);
-            MiasmaChannel.sendToPlayerClient(entity, new MiasmaHandlerSyncPacket(miasmaHandler));
+            MiasmaChannel.syncHandler(entity, miasmaHandler);
             return false;
         }
 
@@ -217,30 +335,56 @@ public class MiasmaLogic {
             infection.pulse(newMode, modifiers);
         }
 
-        // If not paused, fire the pulsed event
+        // If not paused, notify pulse listeners and, if anyone is listening, fire the pulsed event
         if (newMode != InfectionMode.PAUSED) {
-            // Fire the pulsed event
-            EVENT_BUS.post(new InfectionPostPulseEvent(entity, infection.getSnapshot()));
+            MiasmaListeners.firePulse(entity, infection);
+            if (LISTENERS.hasListeners(InfectionPostPulseEvent.class)) {
+                EVENT_BUS.post(new InfectionPostPulseEvent(entity, infection.getSnapshot()));
+            }
         }
 
         // Update the status effect
         updateEffect(entity, miasmaHandler);
 
-        // Synchronize the client if necessary
-        if (!entity.getCommandSenderWorld().isClientSide && needsSync) {
-            MiasmaChannel.sendToPlayerClient(entity, new MiasmaHandlerSyncPacket(miasmaHandler));
+        // Synchronize the client if necessary.  Otherwise, only if it can no longer predict the infection's timers.
+        if (!entity.getCommandSenderWorld().isClientSide) {
+            if (needsSync) {
+                MiasmaChannel.syncHandler(entity, miasmaHandler);
+            } else {
+                MiasmaChannel.syncHandlerIfDrifted(entity, miasmaHandler);
+            }
         }
         return newMode != InfectionMode.PAUSED;
     }
 
+    /**
+     * Switches an intensifying infection to cleansing without waiting for its next pulse.
+     * <p>
+     *     Used when the miasma becomes inactive world-wide.  Paused infections are left for their next pulse to decide.
+     * </p>
+     */
+    public static void beginCleansing(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        miasmaHandler.getInfection()
+                .filter(infection -> infection.getMode() == InfectionMode.INTENSIFYING)
+                .ifPresent(infection -> {
+                    infection.setMode(InfectionMode.CLEANSING);
+                    updateEffect(entity, miasmaHandler);
+                    MiasmaChannel.syncHandler(entity, miasmaHandler);
+                });
+    }
+
     /** Removes the miasma effect from the given entity. */
     public static void removeMiasma(LivingEntity entity, IMiasmaHandler miasmaHandler) {
         entity.removeEffect(MiasmaEffect.INSTANCE);
         miasmaHandler.getInfection().ifPresent(infection -> {
             miasmaHandler.removeInfection();
-            EVENT_BUS.post(new InfectionRemovedEvent(entity, infection.getSnapshot()));
+            MiasmaListeners.fireRemove(entity, infection.getStage());
+            if (LISTENERS.hasListeners(InfectionRemovedEvent.class)) {
+                EVENT_BUS.post(new InfectionRemovedEvent(entity, infection.getSnapshot()));
+            }
         });
-        MiasmaChannel.sendToPlayerClient(entity, new MiasmaHandlerSyncPacket(miasmaHandler));
+        MiasmaChannel.syncHandler(entity, miasmaHandler);
+        MiasmaWorld.reschedule(entity);
     }
 
     /**
@@ -252,10 +396,14 @@ public class MiasmaLogic {
      */
     public static void onEffectRemoved(LivingEntity entity) {
         MiasmaHandlerCapability.ifPresent(entity, miasmaHandler -> {
-            if (miasmaHandler.getInfection().isPresent()) {
+            Optional<Infection> infection = miasmaHandler.getInfection();
+            if (infection.isPresent()) {
+                InfectionStage stage = infection.get().getStage();
                 miasmaHandler.removeInfection();
+                MiasmaListeners.fireRemove(entity, stage);
+                MiasmaWorld.reschedule(entity);
             }
-            MiasmaChannel.sendToPlayerClient(entity, new MiasmaHandlerSyncPacket(miasmaHandler));
+            MiasmaChannel.syncHandler(entity, miasmaHandler);
         });
     }
 
@@ -276,7 +424,7 @@ public class MiasmaLogic {
      * Returns the total number of game ticks (not miasma ticks!) required to cleanse the given stage.
      */
     public static int getTotalTicksToCleanseStage(InfectionStage stage) {
-        return COMMON_CONFIG.getMiasmaCleanseTimeSeconds(stage) * 20;
+        return COMMON_CONFIG.getSnapshot().getCleanseTicks(stage);
     }
 
     /**
@@ -297,7 +445,7 @@ public class MiasmaLogic {
      * Returns the total number of game ticks (not miasma pulses!) required to advance through the given stage.
      */
     public static int getTotalTicksToAdvanceStage(InfectionStage stage) {
-        return COMMON_CONFIG.getMiasmaDurationSeconds(stage) * 20;
+        return COMMON_CONFIG.getSnapshot().getDurationTicks(stage);
     }
 
     /**
@@ -316,8 +464,7 @@ public class MiasmaLogic {
         boolean shouldIntensify = infection.pulse(InfectionMode.INTENSIFYING, modifiers);
 
         // Perform the appropriate action
-        sendOverlayMessage(entity, "miasma.message." + stage.name().toLowerCase());
-        int damage = modifiers.getModifier(MiasmaPropertyModifierType.DAMAGE).multiplyBy(Fraction.getFraction(COMMON_CONFIG.getMiasmaTickDamage(stage), 1)).intValue();
+        int damage = modifiers.applyTo(MiasmaPropertyModifierType.DAMAGE, COMMON_CONFIG.getSnapshot().getTickDamage(stage));
         switch (stage) {
             case WARNING:
                 break;
@@ -344,24 +491,31 @@ public class MiasmaLogic {
                 // Escalate the miasma
                 InfectionStage newStage = stage == InfectionStage.WARNING ? InfectionStage.HARMING : InfectionStage.KILLING;
                 infection.setStage(newStage, true, modifiers);
-                EVENT_BUS.post(new InfectionStageChangeEvent(entity, stage, infection));
+                MiasmaListeners.fireStageChange(entity, stage, newStage);
+                if (LISTENERS.hasListeners(InfectionStageChangeEvent.class)) {
+                    EVENT_BUS.post(new InfectionStageChangeEvent(entity, stage, infection.getSnapshot()));
+                }
                 break;
             case KILLING:
-                if (MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaModifier -> miasmaModifier.checkKill(entity, infection.getSnapshot()))
-                        && !EVENT_BUS.post(new InfectionKillEvent(entity, infection.getSnapshot()))
+                if (MiasmaModifierCapability.checkModifiersUntilFalse(entity, miasmaHandler, miasmaModifier -> miasmaModifier.checkKill(entity, infection.getSnapshot()))
+                        && MiasmaListeners.checkKill(entity)
+                        && !(LISTENERS.hasListeners(InfectionKillEvent.class) && EVENT_BUS.post(new InfectionKillEvent(entity, infection.getSnapshot())))
                 ) {
                     // End of the line
-                    if (COMMON_CONFIG.killStageKillsOnExpiry()) {
+                    if (COMMON_CONFIG.getSnapshot().killStageKillsOnExpiry()) {
                         entity.hurt(MiasmaLogic.DAMAGE_KILL, Integer.MAX_VALUE);
                         if (entity.isDeadOrDying()) {
                             miasmaHandler.removeInfection();
+                            MiasmaListeners.fireRemove(entity, stage);
                             return;
                         }
                     }
                 }
                 // Unable to kill the player, reset the timer.
                 infection.setStage(InfectionStage.KILLING, true, modifiers);
-                EVENT_BUS.post(new InfectionStageRestartedEvent(entity, infection.getSnapshot()));
+                if (LISTENERS.hasListeners(InfectionStageRestartedEvent.class)) {
+                    EVENT_BUS.post(new InfectionStageRestartedEvent(entity, infection.getSnapshot()));
+                }
                 break;
         }
     }
@@ -390,7 +544,10 @@ public class MiasmaLogic {
                 // Drop the stage by one
                 InfectionStage newStage = stage == InfectionStage.KILLING ? InfectionStage.HARMING : InfectionStage.WARNING;
                 infection.setStage(newStage, false, modifiers);
-                EVENT_BUS.post(new InfectionStageChangeEvent(entity, stage, infection));
+                MiasmaListeners.fireStageChange(entity, stage, newStage);
+                if (LISTENERS.hasListeners(InfectionStageChangeEvent.class)) {
+                    EVENT_BUS.post(new InfectionStageChangeEvent(entity, stage, infection.getSnapshot()));
+                }
                 break;
         }
     }
@@ -414,7 +571,7 @@ public class MiasmaLogic {
                 ei.duration = 0;
                 switch (infection.getMode()) {
                     case INTENSIFYING:
-                        if (COMMON_CONFIG.killStageKillsOnExpiry()) {
+                        if (COMMON_CONFIG.getSnapshot().killStageKillsOnExpiry()) {
                             switch (stage) {
                                 case WARNING:
                                     ei.duration += getTotalTicksToAdvanceStage(InfectionStage.HARMING);
@@ -448,16 +605,6 @@ public class MiasmaLogic {
         }
     }
 
-    /** Sends a message to the player as an overlay message. */
-    private static void sendOverlayMessage(LivingEntity entity, String messageKey) {
-        if (entity instanceof PlayerEntity) {
-            ((PlayerEntity) entity).displayClientMessage(
-                    new TranslationTextComponent(messageKey).withStyle(TextFormatting.RED),
-                    true // Overlay message
-            );
-        }
-    }
-
     /** Returns {@code true} if the entity is a player in creative mode. */
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     private static boolean isCreative(LivingEntity entity) {
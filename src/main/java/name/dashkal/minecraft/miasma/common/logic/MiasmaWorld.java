@@ -0,0 +1,378 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import name.dashkal.minecraft.miasma.MiasmaMod;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-world miasma state for a {@link ServerWorld}.
+ * <p>
+ *     Tracks every susceptible entity in the world along with a direct reference to its {@link IMiasmaHandler}, so the
+ *     miasma logic can be run from a single world tick instead of a capability lookup on every living entity.
+ * </p>
+ * <p>
+ *     Each tracked entity has a single timer on a {@link TimerWheel}, set for its next infection pulse or infection
+ *     attempt, whichever applies.  Only entities whose timer fires in a given tick are touched in that tick.
+ * </p>
+ * <p>
+ *     The world's {@link MiasmaEnvironment} is captured once per tick.  While the miasma is inactive, uninfected
+ *     entities are parked with no timer at all, and are woken again when the miasma becomes active.
+ * </p>
+ * <p>
+ *     Infected entities are also indexed by the chunk section they stand in, so they can be listed, counted or found
+ *     within an area without visiting every tracked entity.  The index is updated whenever an entity is rescheduled,
+ *     and the sections of infected entities are refreshed once per tick.
+ * </p>
+ */
+public class MiasmaWorld {
+    private static final Logger LOGGER = LogManager.getLogger(MiasmaMod.MODID);
+    private static final Map<ServerWorld, MiasmaWorld> WORLDS = new IdentityHashMap<>();
+
+    // Woken entities have their first infection attempt spread over this many ticks
+    private static final int WAKE_SPREAD_TICKS = 20;
+    // How far an entity's bounding box may reach outside of the block it stands in, as assumed by vanilla lookups
+    private static final double ENTITY_REACH = 2.0;
+
+    private final ServerWorld world;
+    private final Map<LivingEntity, Entry> entities = new HashMap<>();
+    private final Set<Entry> parked = new HashSet<>();
+    private final Set<Entry> infected = new HashSet<>();
+    private final Long2ObjectOpenHashMap<Set<Entry>> infectedSections = new Long2ObjectOpenHashMap<>();
+    private final TimerWheel timers;
+    private final SkyExposureCache skyExposure;
+    private MiasmaEnvironment environment;
+
+    private MiasmaWorld(ServerWorld world) {
+        this.world = world;
+        this.environment = MiasmaEnvironment.of(world);
+        this.timers = new TimerWheel(world.getGameTime());
+        this.skyExposure = new SkyExposureCache(world);
+    }
+
+    /** Returns the miasma state for the given world, creating it if required. */
+    public static MiasmaWorld get(ServerWorld world) {
+        return WORLDS.computeIfAbsent(world, MiasmaWorld::new);
+    }
+
+    /** Returns the miasma state for the given world, or {@code null} if it has none. */
+    @Nullable
+    public static MiasmaWorld getIfPresent(IWorld world) {
+        return WORLDS.get(world);
+    }
+
+    /** Discards the miasma state of the given world, if present. */
+    public static void unload(IWorld world) {
+        WORLDS.remove(world);
+    }
+
+    /**
+     * Re-evaluates when the given entity next needs attention.
+     * <p>
+     *     Must be called whenever an infection is applied or removed outside of the entity's own timer.
+     * </p>
+     */
+    public static void reschedule(LivingEntity entity) {
+        World world = entity.getCommandSenderWorld();
+        if (world instanceof ServerWorld) {
+            MiasmaWorld miasmaWorld = getIfPresent(world);
+            if (miasmaWorld != null) {
+                Entry entry = miasmaWorld.entities.get(entity);
+                if (entry != null) {
+                    miasmaWorld.schedule(entry);
+                }
+            }
+        }
+    }
+
+    /** Starts tracking a susceptible entity. */
+    public void add(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        Entry entry = new Entry(entity, miasmaHandler);
+        Entry previous = entities.put(entity, entry);
+        if (previous != null) {
+            timers.cancel(previous);
+            parked.remove(previous);
+            unindex(previous);
+        }
+        schedule(entry);
+    }
+
+    /** Stops tracking a susceptible entity. */
+    public void remove(LivingEntity entity) {
+        Entry entry = entities.remove(entity);
+        if (entry != null) {
+            timers.cancel(entry);
+            parked.remove(entry);
+            unindex(entry);
+        }
+    }
+
+    /** Returns the number of susceptible entities tracked in this world. */
+    public int size() {
+        return entities.size();
+    }
+
+    /** Returns the number of infected entities in this world. */
+    public int getInfectedCount() {
+        return infected.size();
+    }
+
+    /**
+     * Calls the given consumer for every infected entity in this world.
+     * <p>
+     *     The consumer is free to change or remove the infections it is given.
+     * </p>
+     */
+    public void forEachInfected(BiConsumer<LivingEntity, Infection> consumer) {
+        for (Entry entry : infected.toArray(new Entry[0])) {
+            entry.miasmaHandler.getInfection().ifPresent(infection -> consumer.accept(entry.entity, infection));
+        }
+    }
+
+    /** Returns the number of infected entities in this world at each stage. */
+    public Map<InfectionStage, Integer> countByStage() {
+        int[] counts = new int[InfectionStage.values().length];
+        for (Entry entry : infected) {
+            Optional<Infection> infection = entry.miasmaHandler.getInfection();
+            if (infection.isPresent()) {
+                counts[infection.get().getStage().ordinal()]++;
+            }
+        }
+        Map<InfectionStage, Integer> result = new EnumMap<>(InfectionStage.class);
+        for (InfectionStage stage : InfectionStage.values()) {
+            result.put(stage, counts[stage.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns every infected entity whose bounding box intersects the given area.
+     * <p>
+     *     Only the chunk sections the area covers are visited, unless there are fewer occupied sections than that.
+     * </p>
+     */
+    public List<LivingEntity> getInfectedIn(AxisAlignedBB area) {
+        List<LivingEntity> result = new ArrayList<>();
+        if (infected.isEmpty()) {
+            return result;
+        }
+
+        int minX = MathHelper.floor(area.minX - ENTITY_REACH) >> 4;
+        int minY = MathHelper.floor(area.minY - ENTITY_REACH) >> 4;
+        int minZ = MathHelper.floor(area.minZ - ENTITY_REACH) >> 4;
+        int maxX = MathHelper.floor(area.maxX + ENTITY_REACH) >> 4;
+        int maxY = MathHelper.floor(area.maxY + ENTITY_REACH) >> 4;
+        int maxZ = MathHelper.floor(area.maxZ + ENTITY_REACH) >> 4;
+
+        long sectionCount = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (sectionCount > infectedSections.size()) {
+            // Large area, walk the occupied sections instead
+            for (Long2ObjectOpenHashMap.Entry<Set<Entry>> bucket : infectedSections.long2ObjectEntrySet()) {
+                long section = bucket.getLongKey();
+                int x = SectionPos.x(section);
+                int y = SectionPos.y(section);
+                int z = SectionPos.z(section);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                    collectInfectedIn(bucket.getValue(), area, result);
+                }
+            }
+        } else {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        Set<Entry> bucket = infectedSections.get(SectionPos.asLong(x, y, z));
+                        if (bucket != null) {
+                            collectInfectedIn(bucket, area, result);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collectInfectedIn(Set<Entry> bucket, AxisAlignedBB area, List<LivingEntity> result) {
+        for (Entry entry : bucket) {
+            if (entry.miasmaHandler.getInfection().isPresent() && entry.entity.getBoundingBox().intersects(area)) {
+                result.add(entry.entity);
+            }
+        }
+    }
+
+    /** Returns the sky exposure cache for this world. */
+    public SkyExposureCache getSkyExposure() {
+        return skyExposure;
+    }
+
+    /** Returns the environment captured at the start of the current tick. */
+    public MiasmaEnvironment getEnvironment() {
+        return environment;
+    }
+
+    /** Runs the miasma logic for every tracked entity that is due this tick. */
+    public void tick() {
+        MiasmaEnvironment previous = environment;
+        environment = MiasmaEnvironment.of(world);
+        MiasmaEnvironment.Transition transition = environment.getTransitionFrom(previous);
+        if (transition != MiasmaEnvironment.Transition.NONE) {
+            LOGGER.debug("Miasma environment transition in {}: {}", world.dimension().location(), transition);
+            if (environment.isActive() && !previous.isActive()) {
+                wakeParked();
+            } else if (!environment.isActive() && previous.isActive()) {
+                deactivate();
+            }
+        }
+        timers.advance(world.getGameTime());
+        refreshInfectedSections();
+    }
+
+    /** The miasma has become inactive: park the uninfected and set every infection to cleanse. */
+    private void deactivate() {
+        for (Entry entry : entities.values()) {
+            if (entry.miasmaHandler.getInfection().isPresent()) {
+                MiasmaLogic.beginCleansing(entry.entity, entry.miasmaHandler);
+            } else {
+                park(entry);
+            }
+        }
+    }
+
+    /** The miasma has become active: give every parked entity its first infection attempt. */
+    private void wakeParked() {
+        long now = world.getGameTime();
+        for (Entry entry : parked) {
+            timers.schedule(entry, now + 1 + Math.floorMod(entry.entity.getId(), WAKE_SPREAD_TICKS));
+        }
+        parked.clear();
+    }
+
+    private void schedule(Entry entry) {
+        index(entry);
+        if (!environment.isActive() && !entry.miasmaHandler.getInfection().isPresent()) {
+            park(entry);
+        } else {
+            parked.remove(entry);
+            timers.schedule(entry, MiasmaLogic.getNextGameTickTime(entry.miasmaHandler));
+        }
+    }
+
+    private void park(Entry entry) {
+        timers.cancel(entry);
+        parked.add(entry);
+    }
+
+    /** Adds the entry to, moves it within, or removes it from the infected index, as its infection requires. */
+    private void index(Entry entry) {
+        if (!entry.miasmaHandler.getInfection().isPresent()) {
+            unindex(entry);
+        } else if (infected.add(entry)) {
+            addToSection(entry, sectionOf(entry.entity));
+        } else {
+            moveSection(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        if (infected.remove(entry)) {
+            removeFromSection(entry);
+        }
+    }
+
+    /** Moves every infected entity that has walked into another chunk section since the last tick. */
+    private void refreshInfectedSections() {
+        for (Entry entry : infected) {
+            moveSection(entry);
+        }
+    }
+
+    private void moveSection(Entry entry) {
+        long section = sectionOf(entry.entity);
+        if (section != entry.section) {
+            removeFromSection(entry);
+            addToSection(entry, section);
+        }
+    }
+
+    private void addToSection(Entry entry, long section) {
+        Set<Entry> bucket = infectedSections.get(section);
+        if (bucket == null) {
+            bucket = new HashSet<>();
+            infectedSections.put(section, bucket);
+        }
+        bucket.add(entry);
+        entry.section = section;
+    }
+
+    private void removeFromSection(Entry entry) {
+        Set<Entry> bucket = infectedSections.get(entry.section);
+        if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+            infectedSections.remove(entry.section);
+        }
+    }
+
+    private static long sectionOf(LivingEntity entity) {
+        BlockPos pos = entity.blockPosition();
+        return SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+    }
+
+    /** A tracked entity.  Fires when the entity is due for an infection pulse or attempt. */
+    private class Entry extends TimerWheel.Timer {
+        private final LivingEntity entity;
+        private final IMiasmaHandler miasmaHandler;
+        // The chunk section this entry is indexed under, while infected
+        private long section;
+
+        private Entry(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+            this.entity = entity;
+            this.miasmaHandler = miasmaHandler;
+        }
+
+        @Override
+        protected void onTimer(long gameTime) {
+            MiasmaLogic.gameTick(entity, miasmaHandler);
+            // The entity may have left the world during the tick
+            if (entities.get(entity) == this) {
+                schedule(this);
+            }
+        }
+    }
+}
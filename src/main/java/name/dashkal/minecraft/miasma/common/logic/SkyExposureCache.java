@@ -0,0 +1,139 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.Arrays;
+
+/**
+ * Caches, per block column, the lowest height from which the sky can be seen.
+ * <p>
+ *     Columns are computed lazily on first use by scanning down from the world surface heightmap until a block that
+ *     does not let skylight straight down is found.  Each column also records the surface height it was computed
+ *     against, and is recomputed on read if the heightmap has since changed.  This catches changes made without block
+ *     events or neighbor updates, such as commands, structures, pistons and other mods' world edits.  Block events
+ *     additionally invalidate columns whose change lies between the open height and the surface, beneath blocks that
+ *     let skylight through, and whole chunks are dropped when they load or unload.
+ * </p>
+ * <p>
+ *     Lookups are allocation free once the chunk's column array exists.
+ * </p>
+ */
+public class SkyExposureCache {
+    // Columns are packed as (surface height << 16 | open height).  Heights are never negative.
+    private static final int UNKNOWN = -1;
+
+    private final ServerWorld world;
+    private final Long2ObjectOpenHashMap<int[]> chunks = new Long2ObjectOpenHashMap<>();
+    private final BlockPos.Mutable scanPos = new BlockPos.Mutable();
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public SkyExposureCache(ServerWorld world) {
+        this.world = world;
+    }
+
+    /** Returns {@code true} if the sky can be seen from the given block position. */
+    public boolean canSeeSky(int x, int y, int z) {
+        long key = ChunkPos.asLong(x >> 4, z >> 4);
+        int[] columns = chunks.get(key);
+        if (columns == null) {
+            columns = new int[256];
+            Arrays.fill(columns, UNKNOWN);
+            chunks.put(key, columns);
+        }
+
+        int index = columnIndex(x, z);
+        int column = columns[index];
+        int surface = world.getHeight(Heightmap.Type.WORLD_SURFACE, x, z);
+        if (column == UNKNOWN || surfaceHeight(column) != surface) {
+            misses++;
+            column = packColumn(surface, computeOpenHeight(x, surface, z));
+            columns[index] = column;
+        } else {
+            hits++;
+        }
+        return y >= openHeight(column);
+    }
+
+    /** Called when the block at the given position has changed, or is about to. */
+    public void invalidate(BlockPos pos) {
+        int[] columns = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (columns != null) {
+            int index = columnIndex(pos.getX(), pos.getZ());
+            // Changes below the blocking block can't affect what the column can see.
+            if (columns[index] != UNKNOWN && pos.getY() >= openHeight(columns[index]) - 1) {
+                columns[index] = UNKNOWN;
+            }
+        }
+    }
+
+    /** Drops all cached columns of the given chunk. */
+    public void invalidateChunk(ChunkPos chunkPos) {
+        chunks.remove(chunkPos.toLong());
+    }
+
+    /** Returns the number of chunks with cached columns. */
+    public int getCachedChunks() {
+        return chunks.size();
+    }
+
+    /** Returns the number of lookups answered from the cache. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Returns the number of lookups that required a column scan. */
+    public long getMisses() {
+        return misses;
+    }
+
+    private int computeOpenHeight(int x, int surface, int z) {
+        int y = surface;
+        while (y > 0) {
+            scanPos.set(x, y - 1, z);
+            if (!world.getBlockState(scanPos).propagatesSkylightDown(world, scanPos)) {
+                break;
+            }
+            y--;
+        }
+        return y;
+    }
+
+    private static int packColumn(int surface, int openHeight) {
+        return surface << 16 | openHeight;
+    }
+
+    private static int surfaceHeight(int column) {
+        return column >>> 16;
+    }
+
+    private static int openHeight(int column) {
+        return column & 0xFFFF;
+    }
+
+    private static int columnIndex(int x, int z) {
+        return (z & 15) << 4 | (x & 15);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+/**
+ * Hierarchical timer wheel keyed on game time.
+ * <p>
+ *     Timers are intrusive, so scheduling, rescheduling and cancelling are constant time and allocation free.  Each
+ *     level of the wheel has {@value #SLOTS} slots, with each level covering {@value #SLOTS} times the span of the one
+ *     below it.  Timers due within the next {@value #SLOTS} ticks sit in the lowest level and are fired directly from
+ *     their slot; timers further out are cascaded down a level each time the level below wraps around.
+ * </p>
+ * <p>
+ *     Advancing the wheel by a tick only touches the timers that are due in that tick (plus any cascaded timers).
+ * </p>
+ */
+public class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    // Sentinels of circular doubly linked lists, one per slot
+    private final Timer[][] wheels = new Timer[LEVELS][SLOTS];
+    private final Timer firing = new Sentinel();
+    private final Timer cascading = new Sentinel();
+
+    // The last game time processed
+    private long currentTime;
+    private int size = 0;
+
+    /**
+     * Creates a new timer wheel.
+     *
+     * @param currentTime the current game time.  Timers will first fire at {@code currentTime + 1}.
+     */
+    public TimerWheel(long currentTime) {
+        this.currentTime = currentTime;
+        for (Timer[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Sentinel();
+            }
+        }
+    }
+
+    /** Returns the last game time processed by this wheel. */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /** Returns the number of scheduled timers. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a timer to fire at the given game time, replacing any existing schedule for it.
+     * <p>
+     *     Deadlines that have already passed will fire on the next tick.
+     * </p>
+     */
+    public void schedule(Timer timer, long deadline) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = Math.max(deadline, currentTime + 1);
+        insert(timer);
+    }
+
+    /** Cancels a timer, if scheduled. */
+    public void cancel(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheel up to and including the given game time, firing all timers that come due.
+     * <p>
+     *     Timers may freely schedule or cancel any timer, including themselves, while firing.
+     * </p>
+     */
+    public void advance(long gameTime) {
+        while (currentTime < gameTime) {
+            currentTime++;
+            if ((currentTime & SLOT_MASK) == 0) {
+                cascade(1);
+            }
+            fireDue();
+        }
+    }
+
+    /** Fires the timers in the current slot of the lowest level. */
+    private void fireDue() {
+        moveAll(wheels[0][(int) (currentTime & SLOT_MASK)], firing);
+        Timer timer;
+        while ((timer = firing.next) != firing) {
+            unlink(timer);
+            if (timer.deadline <= currentTime) {
+                size--;
+                timer.onTimer(currentTime);
+            } else {
+                insert(timer);
+            }
+        }
+    }
+
+    /** Moves the timers in the current slot of the given level down into lower levels. */
+    private void cascade(int level) {
+        int idx = slotIndex(currentTime, level);
+        if (idx == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+        moveAll(wheels[level][idx], cascading);
+        Timer timer;
+        while ((timer = cascading.next) != cascading) {
+            unlink(timer);
+            insert(timer);
+        }
+    }
+
+    /** Links a timer into the slot appropriate for its deadline. */
+    private void insert(Timer timer) {
+        long delta = timer.deadline - currentTime;
+        long slotTime = delta < MAX_SPAN ? timer.deadline : currentTime + MAX_SPAN - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        Timer head = wheels[level][slotIndex(slotTime, level)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private static int slotIndex(long time, int level) {
+        return (int) ((time >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    /** Moves every timer from one (sentinel headed) list to an empty one. */
+    private static void moveAll(Timer from, Timer to) {
+        if (from.next != from) {
+            to.next = from.next;
+            to.prev = from.prev;
+            to.next.prev = to;
+            to.prev.next = to;
+            from.next = from;
+            from.prev = from;
+        }
+    }
+
+    /**
+     * A timer that may be scheduled on a {@link TimerWheel}.
+     * <p>
+     *     A timer may only be scheduled on a single wheel at a time.
+     * </p>
+     */
+    public abstract static class Timer {
+        private Timer prev;
+        private Timer next;
+        private long deadline;
+
+        /** Returns {@code true} if this timer is currently scheduled. */
+        public boolean isScheduled() {
+            return next != null;
+        }
+
+        /** Returns the game time this timer was last scheduled to fire at. */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Called when the timer fires.  The timer is no longer scheduled when this is called.
+         *
+         * @param gameTime the current game time
+         */
+        protected abstract void onTimer(long gameTime);
+    }
+
+    /** List head.  Never fires. */
+    private static class Sentinel extends Timer {
+        private Sentinel() {
+            super.prev = this;
+            super.next = this;
+        }
+
+        @Override
+        protected void onTimer(long gameTime) { }
+    }
+}
@@ -18,6 +18,7 @@
 package name.dashkal.minecraft.miasma.common.network;
 
 import name.dashkal.minecraft.miasma.MiasmaMod;
+import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.ResourceLocation;
@@ -28,6 +29,8 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -43,6 +46,11 @@ public class MiasmaChannel {
     );
     private static final Logger LOGGER = LogManager.getLogger(MiasmaMod.MODID);
 
+    // Handler syncs requested during the current tick, by player.  Only accessed from the server thread.
+    private static final Map<ServerPlayerEntity, PendingSync> PENDING_SYNCS = new LinkedHashMap<>();
+    private static long sentSyncs = 0;
+    private static long coalescedSyncs = 0;
+
     @SuppressWarnings("UnusedAssignment")
     public static void registerPackets() {
         LOGGER.info("registerPackets(): " + MiasmaMod.getModVersion());
@@ -76,4 +84,84 @@ public class MiasmaChannel {
             CHANNEL.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) entity), packet);
         }
     }
+
+    /**
+     * Schedules any changes to a player's miasma handler to be sent to their client at the end of the tick.  Does
+     * nothing for other entities.
+     * @param entity the entity owning the handler
+     * @param miasmaHandler the entity's miasma handler
+     */
+    public static void syncHandler(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        requestSync(entity, miasmaHandler, true);
+    }
+
+    /**
+     * Schedules any changes to a player's miasma handler to be sent to their client at the end of the tick, but only
+     * if the client's prediction of the handler's state has drifted too far from it.  Does nothing for other
+     * entities.
+     * @param entity the entity owning the handler
+     * @param miasmaHandler the entity's miasma handler
+     */
+    public static void syncHandlerIfDrifted(LivingEntity entity, IMiasmaHandler miasmaHandler) {
+        requestSync(entity, miasmaHandler, false);
+    }
+
+    private static void requestSync(LivingEntity entity, IMiasmaHandler miasmaHandler, boolean always) {
+        if (!entity.getCommandSenderWorld().isClientSide && entity instanceof ServerPlayerEntity) {
+            PendingSync pending = PENDING_SYNCS.get(entity);
+            if (pending == null) {
+                PENDING_SYNCS.put((ServerPlayerEntity) entity, new PendingSync(miasmaHandler, always));
+            } else {
+                pending.miasmaHandler = miasmaHandler;
+                pending.always |= always;
+                coalescedSyncs++;
+            }
+        }
+    }
+
+    /**
+     * Sends the handler syncs requested during this tick, at most one per player.  Called at the end of each server
+     * tick.
+     */
+    public static void flushHandlerSyncs() {
+        if (PENDING_SYNCS.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<ServerPlayerEntity, PendingSync> entry : PENDING_SYNCS.entrySet()) {
+            ServerPlayerEntity player = entry.getKey();
+            PendingSync pending = entry.getValue();
+            if (player.hasDisconnected()) {
+                continue;
+            }
+            Optional<MiasmaHandlerSyncPacket> packet = pending.always
+                    ? MiasmaHandlerSyncPacket.forPlayer(player, pending.miasmaHandler)
+                    : MiasmaHandlerSyncPacket.forPlayerIfDrifted(player, pending.miasmaHandler);
+            if (packet.isPresent()) {
+                CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet.get());
+                sentSyncs++;
+            }
+        }
+        PENDING_SYNCS.clear();
+    }
+
+    /** Returns the number of handler sync packets sent. */
+    public static long getSentSyncs() {
+        return sentSyncs;
+    }
+
+    /** Returns the number of handler sync requests folded into another for the same player and tick. */
+    public static long getCoalescedSyncs() {
+        return coalescedSyncs;
+    }
+
+    /** A handler sync requested during the current tick. */
+    private static final class PendingSync {
+        private IMiasmaHandler miasmaHandler;
+        private boolean always;
+
+        private PendingSync(IMiasmaHandler miasmaHandler, boolean always) {
+            this.miasmaHandler = miasmaHandler;
+            this.always = always;
+        }
+    }
 }
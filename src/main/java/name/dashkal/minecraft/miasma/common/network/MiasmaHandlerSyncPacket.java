@@ -19,37 +19,179 @@ package name.dashkal.minecraft.miasma.common.network;
 
 import name.dashkal.minecraft.miasma.client.MiasmaClient;
 import name.dashkal.minecraft.miasma.common.capability.IMiasmaHandler;
-import net.minecraft.nbt.CompoundNBT;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaHandler;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Supplier;
 
+/**
+ * Synchronizes a player's miasma handler to their client.
+ * <p>
+ *     The handler's sync state is sent as a delta against the last state sent to the same player: a varint bitmask of
+ *     the fields that changed, the server game time the state was written at, then each changed field as a varint.
+ *     The channel is ordered and reliable, so the client always holds the state last sent to it.  After login, respawn
+ *     or a dimension change, every field is sent.
+ * </p>
+ * <p>
+ *     The client extrapolates the infection's timers from the game time, so between stage and mode changes the state
+ *     only needs to be resent if it drifts from that prediction by more than {@link #MAX_DRIFT_TICKS}.
+ * </p>
+ */
 public class MiasmaHandlerSyncPacket implements IMiasmaPlayToClientPacket {
-    private final CompoundNBT nbt;
+    private static final int ALL_FIELDS = (1 << MiasmaHandler.SYNC_STATE_SIZE) - 1;
+
+    /** The largest error in a client's predicted infection timers tolerated before resynchronizing. */
+    public static final int MAX_DRIFT_TICKS = 20;
+
+    // The last sync state sent to each player.  Only accessed from the server thread.
+    private static final Map<UUID, SentState> SENT_STATES = new HashMap<>();
+
+    private final int changedFields;
+    private final long gameTime;
+    private final int[] syncState;
+
+    private MiasmaHandlerSyncPacket(int changedFields, long gameTime, int[] syncState) {
+        this.changedFields = changedFields;
+        this.gameTime = gameTime;
+        this.syncState = syncState;
+    }
+
+    /**
+     * Creates a packet carrying the changes to a player's miasma handler since the last one sent to them.
+     *
+     * @return the packet, or {@link Optional#empty()} if nothing has changed
+     */
+    public static Optional<MiasmaHandlerSyncPacket> forPlayer(ServerPlayerEntity player, IMiasmaHandler miasmaHandler) {
+        return forPlayer(player, miasmaHandler, false);
+    }
+
+    /**
+     * Creates a packet carrying the changes to a player's miasma handler since the last one sent to them, but only if
+     * the client's prediction of the handler's state has drifted too far from it.
+     *
+     * @return the packet, or {@link Optional#empty()} if no resynchronization is needed
+     */
+    public static Optional<MiasmaHandlerSyncPacket> forPlayerIfDrifted(ServerPlayerEntity player, IMiasmaHandler miasmaHandler) {
+        return forPlayer(player, miasmaHandler, true);
+    }
+
+    private static Optional<MiasmaHandlerSyncPacket> forPlayer(ServerPlayerEntity player, IMiasmaHandler miasmaHandler, boolean onlyIfDrifted) {
+        return forPlayer(player.getUUID(), player.getCommandSenderWorld().getGameTime(), miasmaHandler, onlyIfDrifted);
+    }
+
+    /** Creates a packet for the player with the given id, as of the given game time. */
+    static Optional<MiasmaHandlerSyncPacket> forPlayer(UUID playerId, long gameTime, IMiasmaHandler miasmaHandler, boolean onlyIfDrifted) {
+        int[] syncState = new int[MiasmaHandler.SYNC_STATE_SIZE];
+        miasmaHandler.writeSyncState(syncState);
+
+        SentState sent = SENT_STATES.get(playerId);
+        if (onlyIfDrifted && sent != null
+                && !MiasmaHandler.isSyncStateDrifted(sent.syncState, syncState, gameTime - sent.gameTime, MAX_DRIFT_TICKS)) {
+            return Optional.empty();
+        }
 
-    public MiasmaHandlerSyncPacket(IMiasmaHandler miasmaHandler) {
-        this.nbt = miasmaHandler.serializeNBT();
+        int changedFields = 0;
+        if (sent == null) {
+            changedFields = ALL_FIELDS;
+        } else {
+            for (int i = 0; i < syncState.length; i++) {
+                if (syncState[i] != sent.syncState[i]) {
+                    changedFields |= 1 << i;
+                }
+            }
+        }
+        if (changedFields == 0) {
+            return Optional.empty();
+        }
+        SENT_STATES.put(playerId, new SentState(syncState, gameTime));
+        return Optional.of(new MiasmaHandlerSyncPacket(changedFields, gameTime, syncState));
     }
 
-    private MiasmaHandlerSyncPacket(CompoundNBT nbt) {
-        this.nbt = nbt;
+    /** Forgets the state last sent to the given player, so the next sync sends every field. */
+    public static void resetPlayer(ServerPlayerEntity player) {
+        resetPlayer(player.getUUID());
+    }
+
+    /** Forgets the state last sent to the player with the given id. */
+    static void resetPlayer(UUID playerId) {
+        SENT_STATES.remove(playerId);
+    }
+
+    /**
+     * Merges the fields sent in a packet into the sync state last received.
+     *
+     * @param changedFields a bitmask of the sync state fields sent
+     * @param received the sync state, of which only the fields sent are valid
+     * @param syncState the sync state last received, updated in place
+     */
+    public static void mergeSyncState(int changedFields, int[] received, int[] syncState) {
+        for (int i = 0; i < syncState.length; i++) {
+            if ((changedFields & (1 << i)) != 0) {
+                syncState[i] = received[i];
+            }
+        }
     }
 
     @Override
     public void encode(PacketBuffer buffer) {
-        buffer.writeNbt(nbt);
+        buffer.writeVarInt(changedFields);
+        buffer.writeVarLong(gameTime);
+        for (int i = 0; i < syncState.length; i++) {
+            if ((changedFields & (1 << i)) != 0) {
+                buffer.writeVarInt(syncState[i]);
+            }
+        }
     }
 
     public static MiasmaHandlerSyncPacket decoder(PacketBuffer buffer) {
-        return new MiasmaHandlerSyncPacket(buffer.readNbt());
+        int changedFields = buffer.readVarInt();
+        long gameTime = buffer.readVarLong();
+        int[] syncState = new int[MiasmaHandler.SYNC_STATE_SIZE];
+        for (int i = 0; i < syncState.length; i++) {
+            if ((changedFields & (1 << i)) != 0) {
+                syncState[i] = buffer.readVarInt();
+            }
+        }
+        return new MiasmaHandlerSyncPacket(changedFields, gameTime, syncState);
+    }
+
+    /** Returns a bitmask of the sync state fields carried by this packet. */
+    int getChangedFields() {
+        return changedFields;
+    }
+
+    /** Returns the server game time the sync state was written at. */
+    long getGameTime() {
+        return gameTime;
+    }
+
+    /** Returns the sync state, of which only the fields in {@link #getChangedFields()} are valid. */
+    int[] getSyncState() {
+        return syncState;
     }
 
     @Override
     public void handle(Supplier<NetworkEvent.Context> ctx) {
         ctx.get().enqueueWork(() ->
-            MiasmaClient.INSTANCE.syncMiasmaData(nbt)
+            MiasmaClient.INSTANCE.syncMiasmaData(changedFields, syncState, gameTime)
         );
         ctx.get().setPacketHandled(true);
     }
+
+    /** A sync state sent to a player, along with the game time it was written at. */
+    private static final class SentState {
+        private final int[] syncState;
+        private final long gameTime;
+
+        private SentState(int[] syncState, long gameTime) {
+            this.syncState = syncState;
+            this.gameTime = gameTime;
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.api.property;
+
+import org.apache.commons.lang3.math.Fraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link PackedFraction} arithmetic is bit-for-bit the same as {@link Fraction}'s, including overflow.
+ */
+public class PackedFractionTest {
+    private static final long SEED = 0x4D6961736D61L;
+    private static final int RANDOM_OPERATIONS = 2_000_000;
+
+    private static final int[] EDGE_VALUES = {
+            0, 1, -1, 2, -2, 3, 7, 12, 60, 1 << 15, (1 << 15) + 1, 46340, 46341, 65536, -65536,
+            1 << 30, -(1 << 30), Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE, Integer.MIN_VALUE + 1
+    };
+
+    /** Multiplies with both implementations and checks they agree on the result, or on the exception thrown. */
+    private static void checkMultiply(Fraction a, Fraction b) {
+        Fraction expected;
+        try {
+            expected = a.multiplyBy(b);
+        } catch (ArithmeticException e) {
+            ArithmeticException actual = assertThrows(ArithmeticException.class,
+                    () -> PackedFraction.multiply(PackedFraction.pack(a), PackedFraction.pack(b)),
+                    () -> a + " * " + b);
+            assertEquals(e.getMessage(), actual.getMessage(), () -> a + " * " + b);
+            return;
+        }
+        long actual = PackedFraction.multiply(PackedFraction.pack(a), PackedFraction.pack(b));
+        assertEquals(PackedFraction.pack(expected), actual, () -> a + " * " + b + " = " + expected);
+        assertEquals(expected, PackedFraction.toFraction(actual), () -> a + " * " + b);
+    }
+
+    /** Returns {@link Fraction#getFraction(int, int)}, or {@code null} if it rejects the operands. */
+    private static Fraction fractionOrNull(int numerator, int denominator) {
+        try {
+            return Fraction.getFraction(numerator, denominator);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static int randomOperand(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                // Typical modifier values
+                return random.nextInt(201) - 100;
+            case 1:
+                // Around the square root of the int range, where products start to overflow
+                return (random.nextBoolean() ? 1 : -1) * (46000 + random.nextInt(700));
+            case 2:
+                // Products of small primes, which share factors and so exercise the reductions
+                int value = 1;
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    value *= new int[]{2, 3, 5, 7}[random.nextInt(4)];
+                }
+                return random.nextBoolean() ? value : -value;
+            default:
+                return random.nextInt();
+        }
+    }
+
+    @Test
+    public void packRoundTrips() {
+        for (int numerator : EDGE_VALUES) {
+            for (int denominator : EDGE_VALUES) {
+                Fraction fraction = fractionOrNull(numerator, denominator);
+                if (fraction != null) {
+                    long packed = PackedFraction.pack(fraction);
+                    assertEquals(fraction.getNumerator(), PackedFraction.numerator(packed));
+                    assertEquals(fraction.getDenominator(), PackedFraction.denominator(packed));
+                    assertEquals(fraction, PackedFraction.toFraction(packed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void multiplyMatchesFractionOnEdgeCases() {
+        for (int n1 : EDGE_VALUES) {
+            for (int d1 : EDGE_VALUES) {
+                Fraction a = fractionOrNull(n1, d1);
+                if (a == null) {
+                    continue;
+                }
+                for (int n2 : EDGE_VALUES) {
+                    for (int d2 : EDGE_VALUES) {
+                        Fraction b = fractionOrNull(n2, d2);
+                        if (b != null) {
+                            checkMultiply(a, b);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void multiplyMatchesFractionOnRandomOperands() {
+        Random random = new Random(SEED);
+        int checked = 0;
+        while (checked < RANDOM_OPERATIONS) {
+            Fraction a = fractionOrNull(randomOperand(random), randomOperand(random));
+            Fraction b = fractionOrNull(randomOperand(random), randomOperand(random));
+            if (a != null && b != null) {
+                checkMultiply(a, b);
+                checked++;
+            }
+        }
+    }
+
+    @Test
+    public void multiplyMatchesFractionWhenChained() {
+        // Modifiers are merged by repeated multiplication, so follow running products until they overflow
+        Random random = new Random(SEED + 1);
+        for (int chain = 0; chain < 10_000; chain++) {
+            Fraction expected = Fraction.ONE;
+            long actual = PackedFraction.ONE;
+            for (int step = 0; step < 16; step++) {
+                Fraction factor = fractionOrNull(random.nextInt(41) - 20, random.nextInt(40) + 1);
+                if (factor == null) {
+                    continue;
+                }
+                checkMultiply(expected, factor);
+                try {
+                    expected = expected.multiplyBy(factor);
+                } catch (ArithmeticException e) {
+                    break;
+                }
+                actual = PackedFraction.multiply(actual, PackedFraction.pack(factor));
+                assertEquals(PackedFraction.pack(expected), actual);
+            }
+        }
+    }
+
+    @Test
+    public void overflowThrows() {
+        Fraction large = Fraction.getFraction(Integer.MAX_VALUE, 1);
+        assertThrows(ArithmeticException.class, () -> large.multiplyBy(Fraction.getFraction(2, 1)));
+        assertThrows(ArithmeticException.class, () -> PackedFraction.multiply(PackedFraction.pack(large), PackedFraction.pack(2, 1)));
+
+        Fraction small = Fraction.getFraction(1, Integer.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> PackedFraction.multiply(PackedFraction.pack(small), PackedFraction.pack(1, 2)));
+        checkMultiply(large, Fraction.getFraction(2, 1));
+        checkMultiply(small, Fraction.getFraction(1, 2));
+    }
+}
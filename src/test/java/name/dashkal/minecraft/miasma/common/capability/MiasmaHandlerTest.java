@@ -0,0 +1,144 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.capability;
+
+import name.dashkal.minecraft.miasma.api.InfectionMode;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.common.logic.Infection;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the NBT format of {@link MiasmaHandler}, and the migration of older formats.
+ */
+public class MiasmaHandlerTest {
+    private static final long NOW = 1000L;
+
+    /** A handler serialized at version 1, holding a version 1 infection that stored the ticks since its last pulse. */
+    private static CompoundNBT version1(int infectionVersion) {
+        CompoundNBT infection = new CompoundNBT();
+        infection.putInt("version", infectionVersion);
+        infection.putString("stage", "HARMING");
+        infection.putString("mode", "CLEANSING");
+        infection.putInt("cRatio", 3);
+        infection.putInt("iRatio", 2);
+        infection.putInt("targetTicks", 6000);
+        infection.putInt("ticksPerPulse", 20);
+        infection.putInt("cTicks", 120);
+        infection.putInt("iTicks", 900);
+        if (infectionVersion == 1) {
+            infection.putInt("gTicks", 5);
+        } else {
+            infection.putInt("pTicks", 15);
+        }
+
+        CompoundNBT handler = new CompoundNBT();
+        handler.putInt("version", 1);
+        handler.put("infection", infection);
+        return handler;
+    }
+
+    /** The same handler state as {@link #version1(int)}, at the current version. */
+    private static CompoundNBT version2() {
+        CompoundNBT handler = new CompoundNBT();
+        handler.putInt("version", 2);
+        handler.putIntArray("infection", Infection.pack(InfectionStage.HARMING, InfectionMode.CLEANSING, 3, 2, 6000, 20, 120, 900, 15));
+        return handler;
+    }
+
+    private static MiasmaHandler load(CompoundNBT nbt) {
+        MiasmaHandler handler = new MiasmaHandler(() -> NOW);
+        handler.deserializeNBT(nbt);
+        return handler;
+    }
+
+    private static void assertSameState(MiasmaHandler expected, MiasmaHandler actual) {
+        Infection expectedInfection = expected.getInfection().orElseThrow(AssertionError::new);
+        Infection actualInfection = actual.getInfection().orElseThrow(AssertionError::new);
+        assertEquals(expectedInfection.getStage(), actualInfection.getStage());
+        assertEquals(expectedInfection.getMode(), actualInfection.getMode());
+        assertEquals(expectedInfection.getCleansingTicks(), actualInfection.getCleansingTicks());
+        assertEquals(expectedInfection.getIntensifyingTicks(), actualInfection.getIntensifyingTicks());
+        assertEquals(expectedInfection.getGameTicksToPulse(), actualInfection.getGameTicksToPulse());
+        assertEquals(expectedInfection.getStageProgress(), actualInfection.getStageProgress());
+        assertEquals(expected.serializeNBT(), actual.serializeNBT());
+    }
+
+    private static int sizeOf(CompoundNBT nbt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedStreamTools.write(nbt, new DataOutputStream(bytes));
+        return bytes.size();
+    }
+
+    @Test
+    public void migratesVersion1WithVersion1Infection() {
+        MiasmaHandler migrated = load(version1(1));
+        assertSameState(load(version2()), migrated);
+
+        Infection infection = migrated.getInfection().orElseThrow(AssertionError::new);
+        assertEquals(InfectionStage.HARMING, infection.getStage());
+        assertEquals(InfectionMode.CLEANSING, infection.getMode());
+        assertEquals(120, infection.getCleansingTicks());
+        assertEquals(900, infection.getIntensifyingTicks());
+        assertEquals(15, infection.getGameTicksToPulse());
+        assertEquals((900 - 120 * 2 / 3) / 6000.0f, infection.getStageProgress());
+    }
+
+    @Test
+    public void migratesVersion1WithVersion2Infection() {
+        assertSameState(load(version2()), load(version1(2)));
+    }
+
+    @Test
+    public void roundTripsCurrentVersion() {
+        CompoundNBT nbt = version2();
+        assertEquals(nbt, load(nbt).serializeNBT());
+    }
+
+    @Test
+    public void cleanHandlerSerializesEmpty() {
+        MiasmaHandler handler = new MiasmaHandler(() -> NOW);
+        assertEquals(new CompoundNBT(), handler.serializeNBT());
+        assertFalse(load(handler.serializeNBT()).getInfection().isPresent());
+    }
+
+    @Test
+    public void copyKeepsInfection() {
+        MiasmaHandler original = load(version2());
+        MiasmaHandler copy = new MiasmaHandler(() -> NOW + 500);
+        copy.copyFrom(original);
+        assertSameState(original, copy);
+        assertNotSame(original.getInfection().get(), copy.getInfection().get());
+    }
+
+    @Test
+    public void packedFormIsSmaller() throws IOException {
+        // Byte sizes as written to disk, before compression, for an infected entity
+        int version1Size = sizeOf(version1(1));
+        int version2Size = sizeOf(load(version1(1)).serializeNBT());
+        assertEquals(183, version1Size);
+        assertEquals(70, version2Size);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link BatchIndices} maps the bits of batch candidates back to their inputs when inputs are skipped, as
+ * with entities that have no miasma handler or fail their checks.
+ */
+public class BatchIndicesTest {
+    /** Builds an index map in which the inputs marked {@code true} are candidates. */
+    private static BatchIndices indicesOf(boolean... isCandidate) {
+        BatchIndices indices = new BatchIndices(isCandidate.length);
+        for (boolean candidate : isCandidate) {
+            if (candidate) {
+                indices.add();
+            } else {
+                indices.skip();
+            }
+        }
+        return indices;
+    }
+
+    private static BitSet bits(int... indices) {
+        BitSet bits = new BitSet();
+        for (int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    @Test
+    public void addReturnsCandidateIndices() {
+        BatchIndices indices = new BatchIndices(4);
+        indices.skip();
+        assertEquals(0, indices.add());
+        indices.skip();
+        assertEquals(1, indices.add());
+        assertEquals(2, indices.size());
+    }
+
+    @Test
+    public void mapsCandidatesPastSkippedInputs() {
+        BatchIndices indices = indicesOf(false, true, true, false, false, true, false);
+        assertEquals(3, indices.size());
+        assertEquals(1, indices.getInputIndex(0));
+        assertEquals(2, indices.getInputIndex(1));
+        assertEquals(5, indices.getInputIndex(2));
+    }
+
+    @Test
+    public void mapsEveryCandidateWhenNoneAreSkipped() {
+        BatchIndices indices = indicesOf(true, true, true);
+        assertEquals(bits(0, 1, 2), indices.toInputBits(bits(0, 1, 2)));
+        assertEquals(bits(1), indices.toInputBits(bits(1)));
+    }
+
+    @Test
+    public void mapsAppliedBitsToInputBits() {
+        BatchIndices indices = indicesOf(false, true, true, false, false, true, false);
+        assertEquals(bits(1, 2, 5), indices.toInputBits(bits(0, 1, 2)));
+        // A blocked candidate leaves its input unset, without shifting the others
+        assertEquals(bits(1, 5), indices.toInputBits(bits(0, 2)));
+        assertEquals(bits(5), indices.toInputBits(bits(2)));
+        assertEquals(new BitSet(), indices.toInputBits(new BitSet()));
+    }
+
+    @Test
+    public void mapsNothingWhenEveryInputIsSkipped() {
+        BatchIndices indices = indicesOf(false, false, false);
+        assertEquals(0, indices.size());
+        assertEquals(new BitSet(), indices.toInputBits(new BitSet()));
+    }
+
+    @Test
+    public void rejectsBitsBeyondTheCandidates() {
+        BatchIndices indices = indicesOf(false, true, false);
+        assertThrows(IndexOutOfBoundsException.class, () -> indices.getInputIndex(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> indices.getInputIndex(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> indices.toInputBits(bits(0, 1)));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.common.network;
+
+import io.netty.buffer.Unpooled;
+import name.dashkal.minecraft.miasma.api.InfectionMode;
+import name.dashkal.minecraft.miasma.api.InfectionStage;
+import name.dashkal.minecraft.miasma.common.capability.MiasmaHandler;
+import name.dashkal.minecraft.miasma.common.logic.Infection;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the encoded sizes of {@link MiasmaHandlerSyncPacket}, and that packets round-trip to the client's state.
+ */
+public class MiasmaHandlerSyncPacketTest {
+    private final UUID playerId = UUID.randomUUID();
+    // The sync state the client has merged so far
+    private final int[] clientState = new int[MiasmaHandler.SYNC_STATE_SIZE];
+
+    @AfterEach
+    public void reset() {
+        MiasmaHandlerSyncPacket.resetPlayer(playerId);
+    }
+
+    /** Returns a handler infected with the given state, driven by a clock stopped at the given game time. */
+    private static MiasmaHandler handler(long gameTime, InfectionMode mode, int cleansingTicks, int pulseTicks) {
+        CompoundNBT nbt = new CompoundNBT();
+        nbt.putInt("version", 2);
+        nbt.putIntArray("infection", Infection.pack(InfectionStage.HARMING, mode, 3, 2, 6000, 20, cleansingTicks, 900, pulseTicks));
+        MiasmaHandler handler = new MiasmaHandler(() -> gameTime);
+        handler.deserializeNBT(nbt);
+        return handler;
+    }
+
+    private static int[] syncStateOf(MiasmaHandler handler) {
+        int[] syncState = new int[MiasmaHandler.SYNC_STATE_SIZE];
+        handler.writeSyncState(syncState);
+        return syncState;
+    }
+
+    /** Encodes the packet, checks its size, then decodes it and merges it into the client's state. */
+    private void sendAndCheck(MiasmaHandlerSyncPacket packet, int expectedBytes) {
+        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+        packet.encode(buffer);
+        assertEquals(expectedBytes, buffer.readableBytes());
+
+        MiasmaHandlerSyncPacket decoded = MiasmaHandlerSyncPacket.decoder(buffer);
+        assertEquals(0, buffer.readableBytes());
+        assertEquals(packet.getChangedFields(), decoded.getChangedFields());
+        assertEquals(packet.getGameTime(), decoded.getGameTime());
+        MiasmaHandlerSyncPacket.mergeSyncState(decoded.getChangedFields(), decoded.getSyncState(), clientState);
+    }
+
+    /** Checks the client's state matches the server handler's, and loads into an equal client handler. */
+    private void assertClientMatches(MiasmaHandler server, long gameTime) {
+        int[] serverState = syncStateOf(server);
+        assertArrayEquals(serverState, clientState);
+
+        MiasmaHandler client = new MiasmaHandler(() -> gameTime);
+        client.readSyncState(clientState, gameTime);
+        assertArrayEquals(serverState, syncStateOf(client));
+    }
+
+    @Test
+    public void fullStateAfterReset() {
+        MiasmaHandler server = handler(1000, InfectionMode.CLEANSING, 120, 15);
+        Optional<MiasmaHandlerSyncPacket> packet = MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false);
+        assertTrue(packet.isPresent());
+        // Mask (2) + game time (2) + infected flag, stage, mode, ratios and ticks per pulse (6)
+        // + target ticks (2) + cleansing ticks (1) + intensifying ticks (2) + pulse ticks (1)
+        sendAndCheck(packet.get(), 16);
+        assertClientMatches(server, 1000);
+    }
+
+    @Test
+    public void pulseDelta() {
+        MiasmaHandler before = handler(1000, InfectionMode.CLEANSING, 120, 15);
+        sendAndCheck(MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, before, false).orElseThrow(AssertionError::new), 16);
+
+        // The next pulse switches to intensifying, after 15 more ticks of cleansing
+        MiasmaHandler after = handler(1015, InfectionMode.INTENSIFYING, 135, 20);
+        Optional<MiasmaHandlerSyncPacket> packet = MiasmaHandlerSyncPacket.forPlayer(playerId, 1015, after, false);
+        assertTrue(packet.isPresent());
+        // Mask (2) + game time (2) + mode (1) + cleansing ticks (2) + pulse ticks (1)
+        sendAndCheck(packet.get(), 8);
+        assertClientMatches(after, 1015);
+    }
+
+    @Test
+    public void noChangeIsNotSent() {
+        MiasmaHandler server = handler(1000, InfectionMode.CLEANSING, 120, 15);
+        assertTrue(MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false).isPresent());
+        assertFalse(MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false).isPresent());
+    }
+
+    @Test
+    public void predictedProgressIsNotSent() {
+        MiasmaHandler server = handler(1000, InfectionMode.CLEANSING, 120, 15);
+        assertTrue(MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false).isPresent());
+
+        // Ten ticks later, cleansing has progressed exactly as the client predicts
+        MiasmaHandler later = handler(1010, InfectionMode.CLEANSING, 130, 5);
+        assertFalse(MiasmaHandlerSyncPacket.forPlayer(playerId, 1010, later, true).isPresent());
+    }
+
+    @Test
+    public void resetSendsFullState() {
+        MiasmaHandler server = handler(1000, InfectionMode.CLEANSING, 120, 15);
+        assertTrue(MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false).isPresent());
+        MiasmaHandlerSyncPacket.resetPlayer(playerId);
+        MiasmaHandlerSyncPacket packet = MiasmaHandlerSyncPacket.forPlayer(playerId, 1000, server, false).orElseThrow(AssertionError::new);
+        assertEquals((1 << MiasmaHandler.SYNC_STATE_SIZE) - 1, packet.getChangedFields());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Miasma Minecraft Mod
+ * Copyright © 2021 Dashkal <dashkal@darksky.ca>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit
+ * persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package name.dashkal.minecraft.miasma.lib.client.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link Color} gives exactly {@link PackedColor}'s results, and that both agree with the RGB and HSV
+ * conversions of {@link java.awt.Color}.
+ */
+public class PackedColorTest {
+    private static final long SEED = 0x4D6961736D61L;
+    private static final int RANDOM_COLORS = 200_000;
+
+    private static final int[] EDGE_COLORS = {
+            0x00000000, 0xFFFFFFFF, 0xFF000000, 0x00FFFFFF, 0xFFFF0000, 0xFF00FF00, 0xFF0000FF, 0xFFFF00FF,
+            0xFFFF0001, 0xFFFF0100, 0xFF808080, 0x80AAAAAA, 0xFFFFAA00, 0xFF55FFFF, 0xFFFF5555, 0xFF010000
+    };
+
+    private static final float[] EDGE_FRACTIONS = {-1.0f, 0.0f, 0.25f, 0.5f, 0.999f, 1.0f, 2.0f};
+
+    private static String hex(int argb) {
+        return String.format("0x%08X", argb);
+    }
+
+    /** Checks that each channel of two packed colors differs by at most one step. */
+    private static void assertChannelsClose(int expected, int actual, String message) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            int e = (expected >>> shift) & 0xFF;
+            int a = (actual >>> shift) & 0xFF;
+            assertTrue(Math.abs(e - a) <= 1, () -> message + ": expected " + hex(expected) + ", got " + hex(actual));
+        }
+    }
+
+    /** Checks every {@link Color} accessor and operation against {@link PackedColor} for the given color. */
+    private static void checkWrapper(int argb, int other, float fraction) {
+        Color color = Color.fromPackedRGBA(argb & 0xFFFFFFFFL);
+        assertEquals(argb, color.getColorARGB(), () -> hex(argb));
+        assertEquals(argb & 0xFFFFFF, color.getColorRGB(), () -> hex(argb));
+        assertEquals(PackedColor.alpha(argb), color.getAlpha(), () -> hex(argb));
+        assertEquals(PackedColor.red(argb), color.getRed(), () -> hex(argb));
+        assertEquals(PackedColor.green(argb), color.getGreen(), () -> hex(argb));
+        assertEquals(PackedColor.blue(argb), color.getBlue(), () -> hex(argb));
+        assertEquals(PackedColor.hue(argb), color.getHue(), () -> hex(argb));
+        assertEquals(PackedColor.saturation(argb), color.getSaturation(), () -> hex(argb));
+        assertEquals(PackedColor.value(argb), color.getValue(), () -> hex(argb));
+
+        assertEquals(PackedColor.withAlpha(argb, fraction), color.withAlpha(fraction).getColorARGB(), () -> hex(argb) + " " + fraction);
+        assertEquals(PackedColor.withSaturation(argb, fraction), color.withSaturation(fraction).getColorARGB(), () -> hex(argb) + " " + fraction);
+        assertEquals(PackedColor.withValue(argb, fraction), color.withValue(fraction).getColorARGB(), () -> hex(argb) + " " + fraction);
+        assertEquals(PackedColor.multiply(argb, other), color.multiply(Color.fromPackedRGBA(other & 0xFFFFFFFFL)).getColorARGB(),
+                () -> hex(argb) + " * " + hex(other));
+        assertEquals(
+                PackedColor.argb(PackedColor.alpha(argb), PackedColor.red(argb), PackedColor.green(argb), PackedColor.blue(argb)),
+                Color.fromRGB(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha()).getColorARGB(),
+                () -> hex(argb)
+        );
+        assertEquals(
+                PackedColor.fromHSV(fraction * 360.0f, fraction, fraction, fraction),
+                Color.fromHSV(fraction * 360.0f, fraction, fraction, fraction).getColorARGB(),
+                () -> Float.toString(fraction)
+        );
+    }
+
+    /** Checks the conversions of the given color against {@link java.awt.Color}. */
+    private static void checkAgainstAwt(int argb) {
+        // Channels round trip exactly
+        assertEquals(argb, PackedColor.argb(PackedColor.alpha(argb), PackedColor.red(argb), PackedColor.green(argb), PackedColor.blue(argb)),
+                () -> hex(argb));
+
+        float[] hsb = java.awt.Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, null);
+        float hue = PackedColor.hue(argb);
+        assertTrue(hue >= 0.0f && hue < 360.0f, () -> hex(argb) + " hue " + hue);
+        // Hue is circular, so 359.99 and 0.0 are neighbours
+        float hueDelta = Math.abs(hsb[0] * 360.0f - hue) % 360.0f;
+        assertTrue(Math.min(hueDelta, 360.0f - hueDelta) < 0.01f, () -> hex(argb) + " hue " + hue + " vs " + hsb[0] * 360.0f);
+        assertEquals(hsb[1], PackedColor.saturation(argb), 1e-5f, () -> hex(argb));
+        assertEquals(hsb[2], PackedColor.value(argb), 1e-5f, () -> hex(argb));
+
+        // java.awt.Color rounds channels where we truncate, so allow a step either way
+        int awt = java.awt.Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]) & 0xFFFFFF | argb & 0xFF000000;
+        int packed = PackedColor.fromHSV(hue, PackedColor.saturation(argb), PackedColor.value(argb), PackedColor.alpha(argb));
+        assertChannelsClose(awt, packed, hex(argb) + " from HSV");
+        assertChannelsClose(argb, packed, hex(argb) + " HSV round trip");
+    }
+
+    @Test
+    public void wrapperMatchesPackedForEdgeColors() {
+        for (int argb : EDGE_COLORS) {
+            for (int other : EDGE_COLORS) {
+                for (float fraction : EDGE_FRACTIONS) {
+                    checkWrapper(argb, other, fraction);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void wrapperMatchesPackedForRandomColors() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_COLORS; i++) {
+            checkWrapper(random.nextInt(), random.nextInt(), random.nextFloat() * 1.5f - 0.25f);
+        }
+    }
+
+    @Test
+    public void conversionsMatchAwtForEdgeColors() {
+        for (int argb : EDGE_COLORS) {
+            checkAgainstAwt(argb);
+        }
+    }
+
+    @Test
+    public void conversionsMatchAwtForRandomColors() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_COLORS; i++) {
+            checkAgainstAwt(random.nextInt());
+        }
+    }
+
+    @Test
+    public void hueWrapsForRedsLeaningBlue() {
+        assertEquals(300.0f, PackedColor.hue(0xFFFF00FF), 1e-3f);
+        assertEquals(PackedColor.hue(0xFFFF0080), Color.fromPackedRGB(0xFF0080).getHue());
+        assertTrue(PackedColor.hue(0xFFFF0001) > 359.0f);
+        // Saturation changes keep the hue, rather than snapping it to pure red
+        assertChannelsClose(0xFF000000 | 0xFF80C0, PackedColor.withSaturation(0xFFFF0080, 0.5f), "withSaturation");
+    }
+}
@@ -18,6 +18,7 @@
 package name.dashkal.minecraft.miasma.testmod;
 
 import name.dashkal.minecraft.miasma.api.MiasmaAPI;
+import name.dashkal.minecraft.miasma.api.events.MiasmaBatchEvent;
 import name.dashkal.minecraft.miasma.api.events.MiasmaEvent;
 import name.dashkal.minecraft.miasma.api.property.MiasmaPropertyModifierType;
 import net.minecraft.item.Item;
@@ -57,6 +58,7 @@ public class TestModContent {
         LOGGER.info("Registering Event Handlers");
         IEventBus forgeEventBus = MinecraftForge.EVENT_BUS;
         forgeEventBus.addListener(this::onMiasmaPreApplyEvent);
+        forgeEventBus.addListener(this::onMiasmaBatchPreApplyEvent);
         forgeEventBus.addListener(this::onMiasmaPrePulseEvent);
         forgeEventBus.addListener(this::onMiasmaKillEvent);
     }
@@ -74,6 +76,16 @@ public class TestModContent {
         }
     }
 
+    private void onMiasmaBatchPreApplyEvent(MiasmaBatchEvent.InfectionBatchPreApplyEvent event) {
+        event.getCandidates().forEach(candidate -> {
+            if (candidate.getEntity().getMainHandItem().getItem() == Items.STICK) {
+                candidate.block();
+            } else if (candidate.getEntity().getMainHandItem().getItem() == Items.IRON_INGOT) {
+                candidate.addModifier(MiasmaPropertyModifierType.INTENSIFY_STAGE_TIME, Fraction.getFraction(1, 10));
+            }
+        });
+    }
+
     private void onMiasmaPrePulseEvent(MiasmaEvent.InfectionPrePulseEvent event) {
         if (event.getEntityLiving().getMainHandItem().getItem() == Items.STICK) {
             event.setCanceled(true);